@@ -0,0 +1,88 @@
+package com.ebook.userservice.benchmark;
+
+import com.ebook.userservice.config.MapperConfig;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.repository.RevokedTokenRepository;
+import com.ebook.userservice.security.JwtKeyManager;
+import com.ebook.userservice.service.JwtService;
+import com.ebook.userservice.service.ModelService;
+import com.ebook.userservice.service.TokenDenylist;
+import com.ebook.userservice.service.UserPrincipalCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Builds the services under test without a Spring context, database or network.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String JWT_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    public static final int JWT_EXPIRATION_MS = 3_600_000;
+    public static final long JWT_CACHE_SIZE = 10_000;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setEmail("user" + id + "@example.com");
+        user.setPassword("$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z3E5lJ3XlDbOYcJ3xQ6qY6yO");
+        user.setCreationDate(LocalDateTime.now());
+        return user;
+    }
+
+    public static JwtService jwtService() {
+        return jwtService(JwtKeyManager.Algorithm.HMAC);
+    }
+
+    public static JwtService jwtService(JwtKeyManager.Algorithm algorithm) {
+        JwtKeyManager keyManager = algorithm == JwtKeyManager.Algorithm.HMAC
+                ? JwtKeyManager.hmac(JWT_SECRET.getBytes(StandardCharsets.UTF_8))
+                : JwtKeyManager.generate(algorithm);
+        return new JwtService(keyManager, JWT_EXPIRATION_MS, JWT_CACHE_SIZE);
+    }
+
+    public static Authentication authentication(User user) {
+        return new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+    }
+
+    public static ModelService modelService() {
+        MapperConfig mapperConfig = new MapperConfig();
+        return new ModelService(List.of(mapperConfig.userToUserDTOMapper(), mapperConfig.userDTOToUserMapper()));
+    }
+
+    /**
+     * Principal lookup the way {@code UserService.loadUserByUsername} does it, the principal cache in front
+     * of a loader that answers every email with the given user instead of the database.
+     */
+    public static UserDetailsService userDetailsService(User user, MeterRegistry meterRegistry) {
+        UserPrincipalCache principalCache = new UserPrincipalCache(10_000, Duration.ofMinutes(10), meterRegistry);
+        return email -> principalCache.get(User.normalizeEmail(email), key -> user);
+    }
+
+    /**
+     * Denylist whose repository stub accepts every save, revocations only live in memory.
+     */
+    public static TokenDenylist tokenDenylist(MeterRegistry meterRegistry) {
+        RevokedTokenRepository repository = (RevokedTokenRepository) Proxy.newProxyInstance(RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[]{RevokedTokenRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "RevokedTokenRepositoryStub";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        return new TokenDenylist(repository, 100_000, 0.01, Duration.ofSeconds(30), meterRegistry);
+    }
+}
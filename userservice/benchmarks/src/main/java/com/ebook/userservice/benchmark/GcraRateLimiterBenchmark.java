@@ -0,0 +1,51 @@
+package com.ebook.userservice.benchmark;
+
+import com.ebook.userservice.security.GcraRateLimiter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one {@link GcraRateLimiter#tryAcquire(String)} as paid by every login request, spread over
+ * many client keys and contended by several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class GcraRateLimiterBenchmark {
+
+    private static final int KEYS = 10_000;
+
+    private GcraRateLimiter limiter;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        this.limiter = new GcraRateLimiter(1_000_000, Duration.ofSeconds(1), 1_000, 100_000);
+        this.keys = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            this.keys[i] = "10.0." + (i / 256) + "." + (i % 256);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return this.limiter.tryAcquire(this.keys[ThreadLocalRandom.current().nextInt(KEYS)]);
+    }
+}
@@ -0,0 +1,64 @@
+package com.ebook.userservice.benchmark;
+
+import com.ebook.userservice.security.JwtKeyManager;
+import com.ebook.userservice.service.JwtService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.Authentication;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"HMAC", "RS256", "EdDSA"})
+    private JwtKeyManager.Algorithm algorithm;
+
+    private JwtService jwtService;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setup() {
+        this.jwtService = BenchmarkFixtures.jwtService(this.algorithm);
+        this.authentication = BenchmarkFixtures.authentication(BenchmarkFixtures.user(1));
+        this.token = this.jwtService.generateJwtToken(this.authentication);
+    }
+
+    @Benchmark
+    public String generate() {
+        return this.jwtService.generateJwtToken(this.authentication);
+    }
+
+    /**
+     * Full parse and signature check, as on the first request with a token.
+     */
+    @Benchmark
+    public Optional<Claims> verifyUncached() {
+        return this.jwtService.parseJwtToken(this.token);
+    }
+
+    /**
+     * Repeat request with the same token, answered by the verified-token cache.
+     */
+    @Benchmark
+    public Optional<Claims> verifyCached() {
+        return this.jwtService.verifyJwtToken(this.token);
+    }
+}
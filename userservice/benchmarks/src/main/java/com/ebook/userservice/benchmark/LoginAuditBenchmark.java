@@ -0,0 +1,87 @@
+package com.ebook.userservice.benchmark;
+
+import com.ebook.userservice.audit.BoundedRingBuffer;
+import com.ebook.userservice.audit.LoginAuditService;
+import com.ebook.userservice.audit.LoginOutcome;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What auditing adds to a login: {@link LoginAuditService#record} with the writer running against a JDBC stub,
+ * and the queue hand-off it is built on next to an {@link ArrayBlockingQueue}, contended by several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class LoginAuditBenchmark {
+
+    private static final int CAPACITY = 8192;
+
+    private LoginAuditService auditService;
+    private MockHttpServletRequest request;
+    private BoundedRingBuffer<Object> ringBuffer;
+    private ArrayBlockingQueue<Object> blockingQueue;
+
+    @Setup
+    public void setup() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize, ParameterizedPreparedStatementSetter<T> pss) {
+                return new int[0][];
+            }
+        };
+        this.auditService = new LoginAuditService(jdbcTemplate, true, CAPACITY, 200, Duration.ofMillis(100),
+                Duration.ofSeconds(1), LoginAuditService.OverflowPolicy.DROP_NEWEST, new SimpleMeterRegistry());
+        this.auditService.start();
+        this.request = new MockHttpServletRequest("POST", "/api/v1/user/login");
+        this.request.addHeader("X-Forwarded-For", "10.0.0.1");
+        this.request.addHeader("User-Agent", "Mozilla/5.0 (X11; Linux x86_64) benchmark");
+        this.ringBuffer = new BoundedRingBuffer<>(CAPACITY);
+        this.blockingQueue = new ArrayBlockingQueue<>(CAPACITY);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.auditService.stop();
+    }
+
+    @Benchmark
+    public void record() {
+        this.auditService.record(this.request, "user@example.com", LoginOutcome.SUCCESS, 1_000_000);
+    }
+
+    @Benchmark
+    public Object ringBufferOfferPoll() {
+        this.ringBuffer.offer(this.request);
+        return this.ringBuffer.poll();
+    }
+
+    @Benchmark
+    public Object arrayBlockingQueueOfferPoll() {
+        this.blockingQueue.offer(this.request);
+        return this.blockingQueue.poll();
+    }
+}
@@ -0,0 +1,71 @@
+package com.ebook.userservice.benchmark;
+
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.service.ModelService;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * ModelService against the ModelMapper (STRICT) setup it replaced.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelServiceBenchmark {
+
+    @Param("100")
+    private int listSize;
+
+    private ModelService modelService;
+    private ModelMapper modelMapper;
+    private User user;
+    private List<User> users;
+
+    @Setup
+    public void setup() {
+        this.modelService = BenchmarkFixtures.modelService();
+        this.modelMapper = new ModelMapper();
+        this.modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        this.user = BenchmarkFixtures.user(1);
+        this.users = LongStream.rangeClosed(1, this.listSize).mapToObj(BenchmarkFixtures::user).toList();
+    }
+
+    @Benchmark
+    public UserDTO mapSingle() {
+        return this.modelService.map(this.user, UserDTO.class);
+    }
+
+    @Benchmark
+    public List<UserDTO> mapList() {
+        return this.modelService.map(this.users, UserDTO.class);
+    }
+
+    @Benchmark
+    public UserDTO modelMapperSingle() {
+        return this.modelMapper.map(this.user, UserDTO.class);
+    }
+
+    @Benchmark
+    public List<UserDTO> modelMapperList() {
+        return this.users.stream().map(u -> this.modelMapper.map(u, UserDTO.class)).toList();
+    }
+}
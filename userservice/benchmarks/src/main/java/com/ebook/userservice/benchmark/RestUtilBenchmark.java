@@ -0,0 +1,72 @@
+package com.ebook.userservice.benchmark;
+
+import com.ebook.userservice.exception.UserNotFoundException;
+import com.ebook.userservice.util.RestUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestUtilBenchmark {
+
+    private MockHttpServletRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.request = new MockHttpServletRequest("GET", "/api/v1/user/42");
+        this.request.addHeader("X-Forwarded-For", "10.0.0.1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(this.request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public ProblemDetail createProblemDetail() {
+        return RestUtil.createProblemDetail(HttpStatus.NOT_FOUND, "UserNotFound", "User not found!");
+    }
+
+    /**
+     * The overload used by GlobalExceptionHandler, with the request passed in.
+     */
+    @Benchmark
+    public ProblemDetail createProblemDetailForRequest() {
+        return RestUtil.createProblemDetail(this.request, HttpStatus.NOT_FOUND, "UserNotFound", "User not found!", null);
+    }
+
+    /**
+     * Former not-found path, a plain exception that fills in its stack trace.
+     */
+    @Benchmark
+    public RuntimeException runtimeException() {
+        return new RuntimeException("User not found!");
+    }
+
+    @Benchmark
+    public RuntimeException userNotFoundException() {
+        return new UserNotFoundException("User not found!");
+    }
+}
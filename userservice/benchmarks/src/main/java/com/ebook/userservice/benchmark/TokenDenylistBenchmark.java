@@ -0,0 +1,69 @@
+package com.ebook.userservice.benchmark;
+
+import com.ebook.userservice.service.JwtService;
+import com.ebook.userservice.service.TokenDenylist;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link TokenDenylist#isRevoked(Claims)} as called by the filter for every authenticated request,
+ * with {@code revokedCount} other tokens already revoked.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenDenylistBenchmark {
+
+    @Param({"0", "10000", "100000"})
+    private int revokedCount;
+
+    private TokenDenylist tokenDenylist;
+    private Claims validClaims;
+    private Claims revokedClaims;
+
+    @Setup
+    public void setup() {
+        this.tokenDenylist = BenchmarkFixtures.tokenDenylist(new SimpleMeterRegistry());
+        Instant expiresAt = Instant.now().plus(1, ChronoUnit.HOURS);
+        for (int i = 0; i < this.revokedCount; i++) {
+            this.tokenDenylist.revoke(UUID.randomUUID().toString(), expiresAt);
+        }
+
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        this.validClaims = jwtService.parseJwtToken(jwtService.generateJwtToken(BenchmarkFixtures.authentication(BenchmarkFixtures.user(1)))).orElseThrow();
+        this.revokedClaims = jwtService.parseJwtToken(jwtService.generateJwtToken(BenchmarkFixtures.authentication(BenchmarkFixtures.user(2)))).orElseThrow();
+        this.tokenDenylist.revoke(this.revokedClaims.getId(), expiresAt);
+    }
+
+    /**
+     * The common case, answered by the Bloom filter alone.
+     */
+    @Benchmark
+    public boolean notRevoked() {
+        return this.tokenDenylist.isRevoked(this.validClaims);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return this.tokenDenylist.isRevoked(this.revokedClaims);
+    }
+}
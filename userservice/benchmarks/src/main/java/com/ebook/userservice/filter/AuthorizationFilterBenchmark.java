@@ -0,0 +1,71 @@
+package com.ebook.userservice.filter;
+
+import com.ebook.userservice.benchmark.BenchmarkFixtures;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.security.AuthMode;
+import com.ebook.userservice.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link AuthorizationFilter#doFilterInternal}. Lives in the filter
+ * package to reach the protected method. In DATABASE mode the principal comes from the principal cache
+ * in front of a stub loader, so the numbers leave out real database latency.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthorizationFilterBenchmark {
+
+    @Param({"DATABASE", "CLAIMS"})
+    private AuthMode authMode;
+
+    private AuthorizationFilter filter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setup() {
+        User user = BenchmarkFixtures.user(1);
+        JwtService jwtService = BenchmarkFixtures.jwtService();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        this.filter = new AuthorizationFilter(jwtService, (request, response, handler, ex) -> null,
+                BenchmarkFixtures.userDetailsService(user, meterRegistry),
+                BenchmarkFixtures.tokenDenylist(meterRegistry), this.authMode, meterRegistry);
+        this.authorizationHeader = AuthorizationFilter.BEARER + jwtService.generateJwtToken(BenchmarkFixtures.authentication(user));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilterInternal() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/user/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, this.authorizationHeader);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            this.filter.doFilterInternal(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,98 @@
+package com.ebook.userservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.net.http.HttpTimeoutException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and response statuses of one endpoint. Request threads record into a {@link Recorder}, the reporting
+ * thread takes an interval histogram from it every second and adds it to the phase total.
+ */
+final class EndpointStats {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    @FunctionalInterface
+    interface Request {
+        /**
+         * @return the HTTP status
+         */
+        int send() throws Exception;
+    }
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final Histogram total = new Histogram(SIGNIFICANT_DIGITS);
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return this.endpoint;
+    }
+
+    /**
+     * Sends the request and records its latency from {@code intendedStartNanos}, the time the schedule wanted it
+     * sent, not the time it was. Failed requests are recorded too, a timeout costs its full wait.
+     */
+    void record(long intendedStartNanos, Request request) {
+        String outcome;
+        try {
+            outcome = String.valueOf(request.send());
+        } catch (HttpTimeoutException e) {
+            outcome = "timeout";
+        } catch (Exception e) {
+            outcome = e.getClass().getSimpleName();
+        }
+        this.recorder.recordValue(System.nanoTime() - intendedStartNanos);
+        this.outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Latencies recorded since the previous call, tagged with the endpoint. Called by the reporting thread only.
+     */
+    Histogram interval(boolean measured) {
+        Histogram interval = this.recorder.getIntervalHistogram();
+        interval.setTag(this.endpoint);
+        if (measured) {
+            this.total.add(interval);
+        }
+        return interval;
+    }
+
+    /**
+     * Drops what the warm-up recorded, once none of its requests is in flight any more.
+     */
+    void reset() {
+        this.recorder.reset();
+        this.outcomes.clear();
+        this.total.reset();
+    }
+
+    Histogram total() {
+        return this.total;
+    }
+
+    /**
+     * Responses by status code, exceptions by name.
+     */
+    Map<String, Long> outcomes() {
+        Map<String, Long> outcomes = new TreeMap<>();
+        this.outcomes.forEach((outcome, count) -> outcomes.put(outcome, count.sum()));
+        return outcomes;
+    }
+
+    long errors() {
+        return this.outcomes().entrySet().stream()
+                .filter(entry -> !entry.getKey().startsWith("2"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+}
@@ -0,0 +1,207 @@
+package com.ebook.userservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Starts userservice, seeds users through {@code POST /api/v1/user} and drives the login, read and create
+ * scenarios at fixed arrival rates: first a warm-up that is not reported, then the measured run. Results are
+ * written to {@code <out>/<timestamp>/}, see {@link Report}.
+ * <pre>
+ * java -jar target/loadtest.jar [--name=value ...]
+ * java -jar target/loadtest.jar compare &lt;baseline run dir&gt; &lt;candidate run dir&gt;
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final Duration REPORT_INTERVAL = Duration.ofSeconds(1);
+
+    private final LoadTestOptions options;
+    private final String runId = LocalDateTime.now().format(RUN_ID);
+    private final PrintStream console = System.out;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<String> emails = new ArrayList<>();
+    private final List<String> tokens = new ArrayList<>();
+    private final AtomicLong logins = new AtomicLong();
+    private final AtomicLong creates = new AtomicLong();
+    private UserServiceClient client;
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("compare")) {
+            if (args.length != 3) {
+                throw new IllegalArgumentException("Usage: compare <baseline run dir> <candidate run dir>");
+            }
+            Report.compare(Path.of(args[1]), Path.of(args[2]), System.out);
+            return;
+        }
+        new LoadTest(LoadTestOptions.parse(args)).run();
+    }
+
+    private void run() throws Exception {
+        Path runDir = this.options.out().resolve(this.runId);
+        Files.createDirectories(runDir);
+        try (OutputStream out = Files.newOutputStream(runDir.resolve("run.properties"))) {
+            this.options.toProperties().store(out, "userservice load test " + this.runId);
+        }
+
+        ServiceProcess service = null;
+        String baseUrl = this.options.baseUrl();
+        if (baseUrl.isEmpty()) {
+            this.console.println("Starting " + this.options.jar() + ", log in " + runDir.resolve("service.log"));
+            service = ServiceProcess.start(this.options.jar(), this.options.jvmOptions(), this.options.serviceArgs(), runDir.resolve("service.log"));
+            baseUrl = service.baseUrl();
+        }
+        try (ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            this.client = new UserServiceClient(baseUrl, this.options.timeout(), clientExecutor);
+            this.seed();
+            List<OpenLoopScenario> scenarios = this.scenarios();
+            List<EndpointStats> endpoints = scenarios.stream().map(OpenLoopScenario::stats).toList();
+
+            this.runPhase("warm-up", this.options.warmUp(), scenarios, null);
+            // Fresh tokens, so a long run does not outlive them
+            this.loginTokens();
+            endpoints.forEach(EndpointStats::reset);
+
+            try (PrintStream hlog = new PrintStream(Files.newOutputStream(runDir.resolve("latency.hlog")))) {
+                HistogramLogWriter logWriter = new HistogramLogWriter(hlog);
+                long startMillis = System.currentTimeMillis();
+                logWriter.outputLogFormatVersion();
+                logWriter.outputStartTime(startMillis);
+                logWriter.setBaseTime(startMillis);
+                logWriter.outputLegend();
+                this.runPhase("run", this.options.duration(), scenarios, logWriter);
+            }
+            Report.write(runDir, endpoints, this.options.duration().toNanos() / 1e9, this.console);
+            this.console.println("\nResults in " + runDir);
+        } finally {
+            if (service != null) {
+                service.close();
+            }
+        }
+    }
+
+    /**
+     * Creates the users the scenarios log in as and read. Concurrency is bounded because every create costs the
+     * service a BCrypt hash.
+     */
+    private void seed() throws Exception {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(this.options.seedConcurrency());
+        List<Future<Long>> created = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < this.options.users(); i++) {
+                String username = "load-" + this.runId + "-" + i;
+                String email = username + "@example.com";
+                this.emails.add(email);
+                created.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return this.client.createForId(username, email);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+        for (Future<Long> id : created) {
+            this.userIds.add(id.get());
+        }
+        this.loginTokens();
+        this.console.printf(Locale.ROOT, "Seeded %d users in %.1f s%n", this.userIds.size(), (System.nanoTime() - start) / 1e9);
+    }
+
+    private void loginTokens() throws IOException, InterruptedException {
+        this.tokens.clear();
+        for (int i = 0; i < Math.min(this.options.tokens(), this.emails.size()); i++) {
+            this.tokens.add(this.client.loginForToken(this.emails.get(i)));
+        }
+    }
+
+    private List<OpenLoopScenario> scenarios() {
+        List<OpenLoopScenario> scenarios = new ArrayList<>();
+        if (this.options.scenarios().contains(LoadTestOptions.LOGIN)) {
+            scenarios.add(OpenLoopScenario.fixedRate(new EndpointStats(LoadTestOptions.LOGIN), this.options.loginRate(),
+                    () -> this.client.login(this.emails.get((int) (this.logins.getAndIncrement() % this.emails.size())))));
+        }
+        if (this.options.scenarios().contains(LoadTestOptions.READ)) {
+            scenarios.add(OpenLoopScenario.fixedRate(new EndpointStats(LoadTestOptions.READ), this.options.readRate(), () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                return this.client.getById(this.userIds.get(random.nextInt(this.userIds.size())),
+                        this.tokens.get(random.nextInt(this.tokens.size())));
+            }));
+        }
+        if (this.options.scenarios().contains(LoadTestOptions.CREATE)) {
+            scenarios.add(OpenLoopScenario.bursts(new EndpointStats(LoadTestOptions.CREATE), this.options.createBurst(),
+                    this.options.createInterval(), () -> {
+                        String username = "load-" + this.runId + "-new-" + this.creates.getAndIncrement();
+                        return this.client.create(username, username + "@example.com");
+                    }));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Runs every scenario on its own arrival thread for {@code length}, printing one line per second. Returns
+     * once the last request has completed.
+     *
+     * @param logWriter receives the interval histograms of a measured phase, {@code null} for the warm-up
+     */
+    private void runPhase(String phase, Duration length, List<OpenLoopScenario> scenarios, HistogramLogWriter logWriter) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        List<Thread> arrivals = new ArrayList<>();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (OpenLoopScenario scenario : scenarios) {
+                arrivals.add(Thread.ofPlatform()
+                        .name("arrivals-" + scenario.stats().endpoint())
+                        .start(() -> scenario.run(requests, start, end)));
+            }
+            for (long report = start + REPORT_INTERVAL.toNanos(); report <= end; report += REPORT_INTERVAL.toNanos()) {
+                TimeUnit.NANOSECONDS.sleep(report - System.nanoTime());
+                this.report(phase, report - start, scenarios, logWriter);
+            }
+            for (Thread thread : arrivals) {
+                thread.join();
+            }
+        }
+        // Requests still in flight at the end of the phase
+        this.report(phase, System.nanoTime() - start, scenarios, logWriter);
+    }
+
+    private void report(String phase, long elapsedNanos, List<OpenLoopScenario> scenarios, HistogramLogWriter logWriter) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "[%-7s %4ds]", phase, TimeUnit.NANOSECONDS.toSeconds(elapsedNanos)));
+        for (OpenLoopScenario scenario : scenarios) {
+            Histogram interval = scenario.stats().interval(logWriter != null);
+            if (logWriter != null) {
+                logWriter.outputIntervalHistogram(interval);
+            }
+            line.append(String.format(Locale.ROOT, "  %s %5d/s p99 %8.2f ms", scenario.stats().endpoint(),
+                    interval.getTotalCount(), interval.getValueAtPercentile(99) / 1e6));
+        }
+        this.console.println(line);
+    }
+}
@@ -0,0 +1,121 @@
+package com.ebook.userservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Command line options, given as {@code --name=value}. {@code --jvm-opt} and {@code --service-arg} may be repeated.
+ */
+record LoadTestOptions(Path jar, String baseUrl, List<String> jvmOptions, List<String> serviceArgs,
+                       int users, int seedConcurrency, int tokens, Set<String> scenarios,
+                       double loginRate, double readRate, int createBurst, Duration createInterval,
+                       Duration warmUp, Duration duration, Duration timeout, Path out) {
+
+    static final String LOGIN = "login";
+    static final String READ = "read";
+    static final String CREATE = "create";
+
+    private static final Map<String, String> DEFAULTS = defaults();
+
+    private static Map<String, String> defaults() {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        defaults.put("jar", "../target/userservice-1.0.0.jar");
+        defaults.put("base-url", "");
+        defaults.put("users", "500");
+        defaults.put("seed-concurrency", "16");
+        defaults.put("tokens", "16");
+        defaults.put("scenarios", LOGIN + "," + READ + "," + CREATE);
+        defaults.put("login-rate", "20");
+        defaults.put("read-rate", "500");
+        defaults.put("create-burst", "20");
+        defaults.put("create-interval", "5s");
+        defaults.put("warm-up", "15s");
+        defaults.put("duration", "60s");
+        defaults.put("timeout", "10s");
+        defaults.put("out", "target/loadtest");
+        return defaults;
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>(DEFAULTS);
+        List<String> jvmOptions = new ArrayList<>();
+        List<String> serviceArgs = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, separator);
+            String value = arg.substring(separator + 1);
+            switch (name) {
+                case "jvm-opt" -> jvmOptions.add(value);
+                case "service-arg" -> serviceArgs.add(value);
+                default -> {
+                    if (!values.containsKey(name)) {
+                        throw new IllegalArgumentException("Unknown option --" + name + ", known: " + DEFAULTS.keySet());
+                    }
+                    values.put(name, value);
+                }
+            }
+        }
+
+        Set<String> scenarios = Set.of(values.get("scenarios").split(","));
+        for (String scenario : scenarios) {
+            if (!Set.of(LOGIN, READ, CREATE).contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario " + scenario);
+            }
+        }
+        return new LoadTestOptions(Path.of(values.get("jar")), values.get("base-url"), List.copyOf(jvmOptions), List.copyOf(serviceArgs),
+                Integer.parseInt(values.get("users")), Integer.parseInt(values.get("seed-concurrency")),
+                Integer.parseInt(values.get("tokens")), scenarios,
+                Double.parseDouble(values.get("login-rate")), Double.parseDouble(values.get("read-rate")),
+                Integer.parseInt(values.get("create-burst")), duration(values.get("create-interval")),
+                duration(values.get("warm-up")), duration(values.get("duration")), duration(values.get("timeout")),
+                Path.of(values.get("out")));
+    }
+
+    /**
+     * Written next to the results, so two runs can be checked for comparable settings.
+     */
+    Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("jar", this.jar.toString());
+        properties.setProperty("base-url", this.baseUrl);
+        properties.setProperty("jvm-opt", String.join(" ", this.jvmOptions));
+        properties.setProperty("service-arg", String.join(" ", this.serviceArgs));
+        properties.setProperty("users", String.valueOf(this.users));
+        properties.setProperty("seed-concurrency", String.valueOf(this.seedConcurrency));
+        properties.setProperty("tokens", String.valueOf(this.tokens));
+        properties.setProperty("scenarios", String.join(",", this.scenarios));
+        properties.setProperty("login-rate", String.valueOf(this.loginRate));
+        properties.setProperty("read-rate", String.valueOf(this.readRate));
+        properties.setProperty("create-burst", String.valueOf(this.createBurst));
+        properties.setProperty("create-interval", this.createInterval.toString());
+        properties.setProperty("warm-up", this.warmUp.toString());
+        properties.setProperty("duration", this.duration.toString());
+        properties.setProperty("timeout", this.timeout.toString());
+        return properties;
+    }
+
+    /**
+     * Accepts the short forms used in application.yml: 500ms, 30s, 2m.
+     */
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        return switch (value.charAt(value.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Expected a duration such as 500ms, 30s or 2m but got " + value);
+        };
+    }
+}
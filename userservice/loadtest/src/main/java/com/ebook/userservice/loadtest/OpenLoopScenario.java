@@ -0,0 +1,61 @@
+package com.ebook.userservice.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends {@code burst} requests every {@code interval} whether or not the earlier ones have completed, each on its
+ * own virtual thread. A closed loop waits for a response before sending the next request, so a stalled server
+ * would lower the request rate and hide the stall (coordinated omission). Here the rate holds and the stall shows
+ * up in the latencies, which are measured from the scheduled send time.
+ */
+final class OpenLoopScenario {
+
+    private final EndpointStats stats;
+    private final int burst;
+    private final long intervalNanos;
+    private final EndpointStats.Request request;
+
+    private OpenLoopScenario(EndpointStats stats, int burst, long intervalNanos, EndpointStats.Request request) {
+        this.stats = stats;
+        this.burst = burst;
+        this.intervalNanos = intervalNanos;
+        this.request = request;
+    }
+
+    /**
+     * One request at a time, {@code perSecond} times a second.
+     */
+    static OpenLoopScenario fixedRate(EndpointStats stats, double perSecond, EndpointStats.Request request) {
+        return new OpenLoopScenario(stats, 1, Math.round(1_000_000_000 / perSecond), request);
+    }
+
+    /**
+     * {@code burst} requests at once, every {@code interval}.
+     */
+    static OpenLoopScenario bursts(EndpointStats stats, int burst, Duration interval, EndpointStats.Request request) {
+        return new OpenLoopScenario(stats, burst, interval.toNanos(), request);
+    }
+
+    EndpointStats stats() {
+        return this.stats;
+    }
+
+    /**
+     * Schedules arrivals from {@code startNanos} until {@code endNanos}. If this thread falls behind, the
+     * overdue requests are sent at once and still measured from their scheduled time.
+     */
+    void run(ExecutorService requests, long startNanos, long endNanos) {
+        for (long next = startNanos; next < endNanos; next += this.intervalNanos) {
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intendedStartNanos = next;
+            for (int i = 0; i < this.burst; i++) {
+                requests.execute(() -> this.stats.record(intendedStartNanos, this.request));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.ebook.userservice.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Results of a run: {@code <endpoint>.hgrm} percentile distributions in milliseconds, which the HdrHistogram
+ * plotter can overlay across runs, and {@code summary.csv}, which {@link #compare(Path, Path)} reads.
+ */
+final class Report {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final String SUMMARY = "summary.csv";
+    private static final String HEADER = "endpoint,requests,errors,throughput_per_s,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private Report() {
+    }
+
+    static void write(Path runDir, List<EndpointStats> endpoints, double seconds, PrintStream console) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        console.printf(Locale.ROOT, "%n%-8s %10s %8s %12s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointStats endpoint : endpoints) {
+            Histogram histogram = endpoint.total();
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(runDir.resolve(endpoint.endpoint() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(hgrm, NANOS_PER_MILLI);
+            }
+            Row row = new Row(endpoint.endpoint(), histogram.getTotalCount(), endpoint.errors(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+            lines.add(row.toCsv());
+            console.printf(Locale.ROOT, "%-8s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f   %s%n", row.endpoint(), row.requests(),
+                    row.errors(), row.throughput(), row.p50(), row.p99(), row.p999(), row.max(), endpoint.outcomes());
+        }
+        Files.write(runDir.resolve(SUMMARY), lines);
+    }
+
+    /**
+     * Prints the summary of two runs side by side with the change from the first to the second.
+     */
+    static void compare(Path baselineDir, Path candidateDir, PrintStream console) throws IOException {
+        Map<String, Row> baseline = read(baselineDir.resolve(SUMMARY));
+        Map<String, Row> candidate = read(candidateDir.resolve(SUMMARY));
+        console.printf(Locale.ROOT, "%-8s %-9s %12s %12s %9s%n", "endpoint", "metric", "baseline", "candidate", "change");
+        for (Map.Entry<String, Row> entry : baseline.entrySet()) {
+            Row after = candidate.get(entry.getKey());
+            if (after == null) {
+                continue;
+            }
+            Row before = entry.getValue();
+            printChange(console, entry.getKey(), "req/s", before.throughput(), after.throughput());
+            printChange(console, "", "errors", before.errors(), after.errors());
+            printChange(console, "", "p50 ms", before.p50(), after.p50());
+            printChange(console, "", "p99 ms", before.p99(), after.p99());
+            printChange(console, "", "p99.9 ms", before.p999(), after.p999());
+            printChange(console, "", "max ms", before.max(), after.max());
+        }
+    }
+
+    private static void printChange(PrintStream console, String endpoint, String metric, double before, double after) {
+        String change = before == 0 ? "" : String.format(Locale.ROOT, "%+.1f%%", (after - before) * 100 / before);
+        console.printf(Locale.ROOT, "%-8s %-9s %12.2f %12.2f %9s%n", endpoint, metric, before, after, change);
+    }
+
+    private static Map<String, Row> read(Path summary) throws IOException {
+        Map<String, Row> rows = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(summary)) {
+            if (line.equals(HEADER) || line.isBlank()) {
+                continue;
+            }
+            String[] values = line.split(",");
+            rows.put(values[0], new Row(values[0], Long.parseLong(values[1]), Long.parseLong(values[2]),
+                    Double.parseDouble(values[3]), Double.parseDouble(values[4]), Double.parseDouble(values[5]),
+                    Double.parseDouble(values[6]), Double.parseDouble(values[7])));
+        }
+        return rows;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private record Row(String endpoint, long requests, long errors, double throughput,
+                       double p50, double p99, double p999, double max) {
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.3f,%.3f,%.3f,%.3f",
+                    this.endpoint, this.requests, this.errors, this.throughput, this.p50, this.p99, this.p999, this.max);
+        }
+    }
+}
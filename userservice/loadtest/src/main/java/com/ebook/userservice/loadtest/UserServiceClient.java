@@ -0,0 +1,97 @@
+package com.ebook.userservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * The user endpoints exercised by the load test. Calls are blocking and meant to run on virtual threads.
+ * Methods returning a status code discard the body, so only the server's work is measured.
+ */
+final class UserServiceClient {
+
+    static final String PASSWORD = "load-test-password";
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String userUrl;
+    private final Duration timeout;
+
+    UserServiceClient(String baseUrl, Duration timeout, Executor executor) {
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .executor(executor)
+                .build();
+        this.userUrl = baseUrl + "/api/v1/user";
+        this.timeout = timeout;
+    }
+
+    int create(String username, String email) throws IOException, InterruptedException {
+        return this.client.send(this.createRequest(username, email), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * @return id of the new user
+     */
+    long createForId(String username, String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = this.client.send(this.createRequest(username, email), HttpResponse.BodyHandlers.ofString());
+        return this.json(response).get("id").asLong();
+    }
+
+    int login(String email) throws IOException, InterruptedException {
+        return this.client.send(this.loginRequest(email), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * @return the Authorization header value, "Bearer" included
+     */
+    String loginForToken(String email) throws IOException, InterruptedException {
+        HttpResponse<String> response = this.client.send(this.loginRequest(email), HttpResponse.BodyHandlers.ofString());
+        return this.json(response).get("token").asText();
+    }
+
+    int getById(long id, String authorization) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(this.userUrl + "/" + id))
+                .timeout(this.timeout)
+                .header("Authorization", authorization)
+                .GET()
+                .build();
+        return this.client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest createRequest(String username, String email) throws IOException {
+        byte[] body = this.objectMapper.writeValueAsBytes(Map.of("username", username, "email", email, "password", PASSWORD));
+        return HttpRequest.newBuilder(URI.create(this.userUrl))
+                .timeout(this.timeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+    }
+
+    private HttpRequest loginRequest(String email) {
+        String query = "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8) + "&password=" + PASSWORD;
+        return HttpRequest.newBuilder(URI.create(this.userUrl + "/login?" + query))
+                .timeout(this.timeout)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private JsonNode json(HttpResponse<String> response) throws IOException {
+        if (response.statusCode() != 200) {
+            throw new IOException(response.request().method() + " " + response.uri().getPath() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return this.objectMapper.readTree(response.body());
+    }
+}
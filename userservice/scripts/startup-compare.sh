@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Compares startup time and resident memory of the plain jar, the fast-startup build (AOT + CDS) and, if it
+# was built, the native image. Linux only, RSS is read from /proc.
+#
+#   ./mvnw -Pfast-startup package -DskipTests        # target/userservice-1.0.0.jar and target/fast-startup/
+#   ./mvnw -Pnative native:compile -DskipTests       # optional, target/userservice
+#   scripts/startup-compare.sh [runs]
+#
+# Each run starts on an empty in-memory database and is stopped once /actuator/health answers.
+# "ready" is the wall time from launch until then, "started" the time Spring Boot reports itself.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS=${1:-5}
+PORT=${PORT:-18090}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JAR=target/userservice-1.0.0.jar
+FAST_DIR=target/fast-startup
+NATIVE=target/userservice
+APP_ARGS=(--server.port=$PORT --spring.datasource.url=jdbc:h2:mem:startup --spring.output.ansi.enabled=NEVER)
+LOG=$(mktemp)
+trap 'rm -f "$LOG"' EXIT
+
+now_ms() { date +%s%3N; }
+
+median() { sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2 }'; }
+
+# measure <dir> <command...>, prints "<ready ms> <started s> <rss MiB>"
+measure() {
+    local dir=$1; shift
+    local start pid ready
+    start=$(now_ms)
+    (cd "$dir" && exec "$@" "${APP_ARGS[@]}") >"$LOG" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "localhost:$PORT/actuator/health"; do
+        kill -0 "$pid" 2>/dev/null || { echo "process exited, see output:" >&2; tail -20 "$LOG" >&2; exit 1; }
+        sleep 0.05
+    done
+    ready=$(( $(now_ms) - start ))
+    local rss started
+    rss=$(awk '/^VmRSS/ { printf "%d", $2 / 1024 }' "/proc/$pid/status")
+    started=$(sed -n 's/.*Started UserserviceApplication in \([0-9.]*\) seconds.*/\1/p' "$LOG")
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+    echo "$ready ${started:-0} $rss"
+}
+
+compare() {
+    local name=$1; shift
+    local results
+    results=$(for _ in $(seq "$RUNS"); do measure "$@"; done)
+    printf '%-14s %10s %12s %10s\n' "$name" \
+        "$(cut -d' ' -f1 <<<"$results" | median)" \
+        "$(cut -d' ' -f2 <<<"$results" | median)" \
+        "$(cut -d' ' -f3 <<<"$results" | median)"
+}
+
+[ -f "$JAR" ] || { echo "$JAR not found, build it first" >&2; exit 1; }
+printf '%-14s %10s %12s %10s\n' mode "ready ms" "started s" "RSS MiB"
+compare jar . "$JAVA" -jar "$JAR"
+if [ -f "$FAST_DIR/application.jsa" ]; then
+    compare fast-startup "$FAST_DIR" "$JAVA" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar userservice-1.0.0.jar
+fi
+if [ -x "$NATIVE" ]; then
+    compare native . "$NATIVE"
+fi
@@ -0,0 +1,95 @@
+package com.ebook.userservice.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded multi-producer, multi-consumer queue on a ring of slots, without locks (D. Vyukov's bounded MPMC
+ * queue). Each slot carries a sequence number that tells producers and consumers whether it is free or filled
+ * for their lap, so claiming a slot is a single CAS on the tail or head counter. A full queue rejects instead of
+ * waiting, which keeps {@link #offer(Object)} wait-free for callers on the request path.
+ */
+public final class BoundedRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to the next power of two
+     */
+    public BoundedRingBuffer(int capacity) {
+        int size = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.elements = new AtomicReferenceArray<>(size);
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return false if the queue is full
+     */
+    public boolean offer(E element) {
+        long position = this.tail.get();
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    this.elements.setPlain(index, element);
+                    // Publishes the element, a consumer reads the sequence before the element
+                    this.sequences.set(index, position + 1);
+                    return true;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+    }
+
+    /**
+     * @return the oldest element, or null if the queue is empty
+     */
+    public E poll() {
+        long position = this.head.get();
+        while (true) {
+            int index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (this.head.compareAndSet(position, position + 1)) {
+                    E element = this.elements.getPlain(index);
+                    this.elements.setPlain(index, null);
+                    // Frees the slot for the producer of the next lap
+                    this.sequences.set(index, position + this.mask + 1);
+                    return element;
+                }
+                position = this.head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = this.head.get();
+            }
+        }
+    }
+
+    public int size() {
+        long size = this.tail.get() - this.head.get();
+        return (int) Math.max(0, Math.min(size, this.capacity()));
+    }
+
+    public boolean isEmpty() {
+        return this.size() == 0;
+    }
+
+    public int capacity() {
+        return this.mask + 1;
+    }
+}
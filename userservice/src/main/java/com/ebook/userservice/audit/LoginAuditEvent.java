@@ -0,0 +1,10 @@
+package com.ebook.userservice.audit;
+
+import java.time.Instant;
+
+/**
+ * One login attempt as queued by {@link LoginAuditService}, written to LOGIN_AUDIT.
+ */
+public record LoginAuditEvent(Instant occurredAt, String email, String ip, String userAgent,
+                              LoginOutcome outcome, long latencyMicros) {
+}
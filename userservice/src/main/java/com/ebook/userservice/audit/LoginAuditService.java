@@ -0,0 +1,205 @@
+package com.ebook.userservice.audit;
+
+import com.ebook.userservice.entity.LoginAudit;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.util.RestUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records every login attempt without slowing the login down. Request threads only build an event and put it
+ * on a {@link BoundedRingBuffer}. A single writer thread drains it and inserts the events into LOGIN_AUDIT in
+ * JDBC batches, once {@code batch-size} events are waiting or the oldest has waited {@code flush-interval}.
+ * When the buffer is full the {@code overflow-policy} decides which event is dropped, a login never waits.
+ * On shutdown the writer stops after the web server and flushes what is left.
+ */
+@Component
+@Slf4j
+public class LoginAuditService implements SmartLifecycle {
+
+    public enum OverflowPolicy {
+        /**
+         * Keeps the queued events and drops the new one.
+         */
+        DROP_NEWEST,
+        /**
+         * Makes room by dropping the oldest queued event, so the latest attempts are kept.
+         */
+        DROP_OLDEST
+    }
+
+    private static final String METRIC_PREFIX = "userservice.audit.";
+    private static final String INSERT_SQL = "INSERT INTO LOGIN_AUDIT (OCCURRED_AT, EMAIL, IP, USER_AGENT, OUTCOME, LATENCY_MICROS) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final long MAX_POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Duration shutdownTimeout;
+    private final OverflowPolicy overflowPolicy;
+    private final BoundedRingBuffer<LoginAuditEvent> queue;
+    private final Counter droppedOverflow;
+    private final Counter droppedWriteError;
+    private final Counter written;
+    private final Timer flushTimer;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public LoginAuditService(JdbcTemplate jdbcTemplate,
+                             @Value("${com.ebook.user-service.audit.enabled:true}") boolean enabled,
+                             @Value("${com.ebook.user-service.audit.queue-capacity:8192}") int queueCapacity,
+                             @Value("${com.ebook.user-service.audit.batch-size:200}") int batchSize,
+                             @Value("${com.ebook.user-service.audit.flush-interval:1s}") Duration flushInterval,
+                             @Value("${com.ebook.user-service.audit.shutdown-timeout:10s}") Duration shutdownTimeout,
+                             @Value("${com.ebook.user-service.audit.overflow-policy:DROP_NEWEST}") OverflowPolicy overflowPolicy,
+                             MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.shutdownTimeout = shutdownTimeout;
+        this.overflowPolicy = overflowPolicy;
+        this.queue = new BoundedRingBuffer<>(queueCapacity);
+        this.droppedOverflow = Counter.builder(METRIC_PREFIX + "dropped").tag("reason", "overflow").register(meterRegistry);
+        this.droppedWriteError = Counter.builder(METRIC_PREFIX + "dropped").tag("reason", "write_error").register(meterRegistry);
+        this.written = Counter.builder(METRIC_PREFIX + "written").register(meterRegistry);
+        this.flushTimer = Timer.builder(METRIC_PREFIX + "flush").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "queue.size", this.queue, BoundedRingBuffer::size).register(meterRegistry);
+    }
+
+    /**
+     * Queues an attempt made by the current request. Never blocks and never throws.
+     */
+    public void record(String email, LoginOutcome outcome, long latencyNanos) {
+        ServletRequestAttributes attributes = RestUtil.getRequestAttributes();
+        this.record(attributes == null ? null : attributes.getRequest(), email, outcome, latencyNanos);
+    }
+
+    public void record(HttpServletRequest request, String email, LoginOutcome outcome, long latencyNanos) {
+        if (!this.enabled) {
+            return;
+        }
+        LoginAuditEvent event = new LoginAuditEvent(Instant.now(), User.normalizeEmail(email),
+                request == null ? null : RestUtil.getIp(request),
+                request == null ? null : RestUtil.getUserAgent(request),
+                outcome, TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        while (!this.queue.offer(event)) {
+            if (this.overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+                this.droppedOverflow.increment();
+                return;
+            }
+            // An empty poll means the writer has drained the queue meanwhile, the next offer succeeds
+            if (this.queue.poll() != null) {
+                this.droppedOverflow.increment();
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!this.enabled) {
+            return;
+        }
+        this.running = true;
+        this.writer = new Thread(this::writeLoop, "login-audit-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = this.writer;
+        if (thread == null) {
+            return;
+        }
+        this.running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(this.shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (thread.isAlive()) {
+            log.warn("Login audit writer did not finish within {} ms, {} events are lost", this.shutdownTimeout.toMillis(), this.queue.size());
+        }
+        this.writer = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.writer != null;
+    }
+
+    /**
+     * Started before and stopped after the web server, so attempts made while draining requests are still written.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void writeLoop() {
+        List<LoginAuditEvent> batch = new ArrayList<>(this.batchSize);
+        long pollIntervalNanos = Math.min(this.flushIntervalNanos, MAX_POLL_INTERVAL_NANOS);
+        long oldestQueuedAt = 0;
+        while (this.running || !this.queue.isEmpty()) {
+            LoginAuditEvent event;
+            while (batch.size() < this.batchSize && (event = this.queue.poll()) != null) {
+                if (batch.isEmpty()) {
+                    oldestQueuedAt = System.nanoTime();
+                }
+                batch.add(event);
+            }
+            if (!batch.isEmpty() && (batch.size() >= this.batchSize || !this.running
+                    || System.nanoTime() - oldestQueuedAt >= this.flushIntervalNanos)) {
+                this.flush(batch);
+                batch.clear();
+            } else {
+                LockSupport.parkNanos(pollIntervalNanos);
+            }
+        }
+        if (!batch.isEmpty()) {
+            this.flush(batch);
+        }
+    }
+
+    private void flush(List<LoginAuditEvent> batch) {
+        try {
+            this.flushTimer.record(() -> this.jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, event) -> {
+                ps.setTimestamp(1, Timestamp.from(event.occurredAt()));
+                ps.setString(2, truncate(event.email(), LoginAudit.EMAIL_LENGTH));
+                ps.setString(3, truncate(event.ip(), LoginAudit.IP_LENGTH));
+                ps.setString(4, truncate(event.userAgent(), LoginAudit.USER_AGENT_LENGTH));
+                ps.setString(5, event.outcome().name());
+                ps.setLong(6, event.latencyMicros());
+            }));
+            this.written.increment(batch.size());
+        } catch (RuntimeException e) {
+            this.droppedWriteError.increment(batch.size());
+            log.warn("Dropped {} login audit events, the batch insert failed", batch.size(), e);
+        }
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+}
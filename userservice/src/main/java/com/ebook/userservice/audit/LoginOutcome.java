@@ -0,0 +1,14 @@
+package com.ebook.userservice.audit;
+
+public enum LoginOutcome {
+    SUCCESS,
+    /**
+     * Unknown email or wrong password.
+     */
+    FAILURE,
+    /**
+     * Rejected by the login throttle before the password was checked.
+     */
+    THROTTLED,
+    ERROR
+}
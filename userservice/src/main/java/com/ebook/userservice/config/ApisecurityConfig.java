@@ -1,8 +1,12 @@
 package com.ebook.userservice.config;
 
 import com.ebook.userservice.filter.AuthorizationFilter;
+import com.ebook.userservice.filter.LoginThrottleFilter;
+import com.ebook.userservice.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,11 +18,12 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
+import java.time.Duration;
+
 @Configuration
 public class ApisecurityConfig {
 
@@ -44,12 +49,18 @@ public class ApisecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${com.ebook.user-service.auth.bcrypt.strength:10}") int strength,
+                                           @Value("${com.ebook.user-service.auth.bcrypt.threads:0}") int threads,
+                                           @Value("${com.ebook.user-service.auth.bcrypt.queue-capacity:64}") int queueCapacity,
+                                           @Value("${com.ebook.user-service.auth.bcrypt.retry-after:1s}") Duration retryAfter,
+                                           MeterRegistry meterRegistry) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), workers, queueCapacity, retryAfter, meterRegistry);
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, ObjectProvider<AuthorizationFilter> authTokenFilter) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, ObjectProvider<AuthorizationFilter> authTokenFilter,
+                                           ObjectProvider<LoginThrottleFilter> loginThrottleFilter) throws Exception {
         http.cors(AbstractHttpConfigurer::disable);
         http.csrf(AbstractHttpConfigurer::disable);
         http.sessionManagement(httpSecuritySessionManagementConfigurer -> httpSecuritySessionManagementConfigurer.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -62,7 +73,12 @@ public class ApisecurityConfig {
                 // User
                 .requestMatchers(HttpMethod.POST , "/api/v1/user/login").permitAll()
                 .requestMatchers(HttpMethod.POST , "/api/v1/user").permitAll()
+                .requestMatchers(HttpMethod.POST , "/api/v1/user/token/refresh").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
+                // Admin
+                .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
+                // Token verification keys for other services
+                .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
                 // OTHER
                 .anyRequest().authenticated()
         );
@@ -72,9 +88,11 @@ public class ApisecurityConfig {
 
         http.exceptionHandling(handling -> handling
                 .authenticationEntryPoint((request, response, authException) -> resolver.resolveException(request, response, null, authException))
+                .accessDeniedHandler((request, response, accessDeniedException) -> resolver.resolveException(request, response, null, accessDeniedException))
         );
 
         http.addFilterBefore(authTokenFilter.getObject(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterBefore(loginThrottleFilter.getObject(), AuthorizationFilter.class);
 
         return http.build();
     }
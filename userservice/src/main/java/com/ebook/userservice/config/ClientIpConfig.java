@@ -0,0 +1,18 @@
+package com.ebook.userservice.config;
+
+import com.ebook.userservice.util.RestUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Tells {@link RestUtil#getIp} which proxies may set the client IP headers.
+ */
+@Configuration
+public class ClientIpConfig {
+
+    public ClientIpConfig(@Value("${com.ebook.user-service.auth.login-throttle.ip.trusted-proxies:}") List<String> trustedProxies) {
+        RestUtil.setTrustedProxies(trustedProxies);
+    }
+}
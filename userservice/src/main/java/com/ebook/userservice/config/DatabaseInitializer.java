@@ -0,0 +1,94 @@
+package com.ebook.userservice.config;
+
+import com.ebook.userservice.entity.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * One-off data fixes that {@code ddl-auto: update} cannot do by itself. Runs after Hibernate
+ * has updated the schema and before the application starts serving requests.
+ */
+@Component
+@Slf4j
+public class DatabaseInitializer {
+
+    private static final int MAX_LOGGED_CONFLICTS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        // The EntityManagerFactory is only injected so that the schema update has finished before we run
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void initialize() {
+        this.alignUserIdSequence();
+        this.backfillNormalizedEmails();
+        this.backfillVersions();
+    }
+
+    /**
+     * Users created while ids came from an IDENTITY column are not known to the id sequence.
+     * Moves the sequence past the highest existing id so pooled id allocation cannot collide with them.
+     */
+    private void alignUserIdSequence() {
+        Optional<Long> sequenceValue = this.jdbcTemplate.queryForList(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?", Long.class, User.ID_SEQUENCE)
+                .stream().findFirst();
+        if (sequenceValue.isEmpty()) {
+            log.warn("Sequence {} does not exist, user ids are not aligned", User.ID_SEQUENCE);
+            return;
+        }
+        long nextValue = sequenceValue.get();
+        Long maxId = this.jdbcTemplate.queryForObject("SELECT COALESCE(MAX(ID), 0) FROM USERS", Long.class);
+        long required = maxId + User.ID_ALLOCATION_SIZE + 1;
+        if (nextValue < required) {
+            this.jdbcTemplate.execute("ALTER SEQUENCE " + User.ID_SEQUENCE + " RESTART WITH " + required);
+            log.info("Moved {} from {} to {} past existing user ids", User.ID_SEQUENCE, nextValue, required);
+        }
+    }
+
+    /**
+     * Fills EMAIL_NORMALIZED for users created before the column existed. When several rows share an email
+     * that only differs in case, the oldest one gets it and the others are left empty and reported by id, since
+     * the unique index would reject them.
+     */
+    private void backfillNormalizedEmails() {
+        int updated = this.jdbcTemplate.update("""
+                UPDATE USERS u SET EMAIL_NORMALIZED = LOWER(TRIM(u.EMAIL))
+                WHERE u.EMAIL_NORMALIZED IS NULL AND u.EMAIL IS NOT NULL
+                  AND u.ID = (SELECT MIN(d.ID) FROM USERS d WHERE LOWER(TRIM(d.EMAIL)) = LOWER(TRIM(u.EMAIL)))
+                  AND NOT EXISTS (SELECT 1 FROM USERS n WHERE n.EMAIL_NORMALIZED = LOWER(TRIM(u.EMAIL)))
+                """);
+        if (updated > 0) {
+            log.info("Backfilled normalized email for {} users", updated);
+        }
+        Long conflicts = this.jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM USERS WHERE EMAIL_NORMALIZED IS NULL AND EMAIL IS NOT NULL", Long.class);
+        if (conflicts > 0) {
+            // Ids rather than emails, which are personal data and do not belong in the log
+            List<Long> ids = this.jdbcTemplate.queryForList(
+                    "SELECT ID FROM USERS WHERE EMAIL_NORMALIZED IS NULL AND EMAIL IS NOT NULL ORDER BY ID FETCH FIRST ? ROWS ONLY",
+                    Long.class, MAX_LOGGED_CONFLICTS);
+            log.warn("{} users share their email with an older account and cannot log in until merged, ids{}: {}",
+                    conflicts, conflicts > MAX_LOGGED_CONFLICTS ? " (first " + MAX_LOGGED_CONFLICTS + ")" : "", ids);
+        }
+    }
+
+    /**
+     * Rows created before the VERSION column existed have no version, which Hibernate cannot update.
+     */
+    private void backfillVersions() {
+        int updated = this.jdbcTemplate.update("UPDATE USERS SET VERSION = 0 WHERE VERSION IS NULL");
+        if (updated > 0) {
+            log.info("Backfilled version for {} users", updated);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.ebook.userservice.config;
+
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.service.JwtService;
+import com.ebook.userservice.service.ModelService;
+import com.ebook.userservice.service.TokenDenylist;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs the hot request paths on synthetic data before the instance reports ready. Spring Boot only switches
+ * readiness to ACCEPTING_TRAFFIC once every application runner has returned, so {@code /actuator/health/readiness}
+ * stays OUT_OF_SERVICE and no traffic is routed here until login, token verification and mapping have been
+ * compiled by the JIT. Liveness is already UP meanwhile. Nothing is read from or written to the database.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class JitWarmUpRunner implements ApplicationRunner {
+
+    private static final String METRIC = "userservice.warmup";
+    private static final String PASSWORD = "warm-up-password";
+
+    private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
+    private final ModelService modelService;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int iterations;
+    private final int passwordIterations;
+    private final Duration maxDuration;
+
+    public JitWarmUpRunner(JwtService jwtService, TokenDenylist tokenDenylist, ModelService modelService,
+                           PasswordEncoder passwordEncoder, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                           @Value("${com.ebook.user-service.warm-up.enabled:true}") boolean enabled,
+                           @Value("${com.ebook.user-service.warm-up.iterations:5000}") int iterations,
+                           @Value("${com.ebook.user-service.warm-up.password-iterations:20}") int passwordIterations,
+                           @Value("${com.ebook.user-service.warm-up.max-duration:60s}") Duration maxDuration) {
+        this.jwtService = jwtService;
+        this.tokenDenylist = tokenDenylist;
+        this.modelService = modelService;
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.passwordIterations = passwordIterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!this.enabled) {
+            return;
+        }
+        long deadline = System.nanoTime() + this.maxDuration.toNanos();
+        User user = syntheticUser();
+        String passwordHash = this.passwordEncoder.encode(PASSWORD);
+        UserDTO userDTO = this.modelService.map(user, UserDTO.class);
+        userDTO.setPassword(PASSWORD);
+
+        long start = System.nanoTime();
+        this.warmUp("login", this.passwordIterations, deadline, i -> {
+            this.passwordEncoder.matches(PASSWORD, passwordHash);
+            this.jwtService.generateJwtToken(user, UUID.randomUUID().toString());
+        });
+        this.warmUp("filter", this.iterations, deadline, i -> {
+            // parseJwtToken checks the signature every time and keeps the synthetic tokens out of the cache
+            Claims claims = this.jwtService.parseJwtToken(this.jwtService.generateJwtToken(user)).orElseThrow();
+            this.tokenDenylist.isRevoked(claims);
+            this.jwtService.getPrincipal(claims);
+        });
+        this.warmUp("mapping", this.iterations, deadline, i -> {
+            try {
+                this.objectMapper.writeValueAsString(this.modelService.map(user, UserDTO.class));
+                this.modelService.map(this.objectMapper.readValue(this.objectMapper.writeValueAsString(userDTO), UserDTO.class), User.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        log.info("JIT warm-up finished in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    /**
+     * Runs {@code step} {@code count} times or until the deadline, and records both as {@code path} metrics.
+     */
+    private void warmUp(String path, int count, long deadline, IntConsumer step) {
+        long start = System.nanoTime();
+        int iterationsDone = 0;
+        while (iterationsDone < count && System.nanoTime() < deadline) {
+            step.accept(iterationsDone++);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        int done = iterationsDone;
+        // Gauges rather than a timer, a single run per start has no distribution worth a histogram
+        TimeGauge.builder(METRIC + ".duration", () -> elapsedNanos, TimeUnit.NANOSECONDS).tag("path", path).register(this.meterRegistry);
+        Gauge.builder(METRIC + ".iterations", () -> done).tag("path", path).register(this.meterRegistry);
+        if (done < count) {
+            log.warn("JIT warm-up of {} stopped after {} of {} iterations, max-duration reached", path, done, count);
+        }
+    }
+
+    private static User syntheticUser() {
+        User user = new User();
+        user.setId(0L);
+        user.setUsername("warm-up");
+        user.setEmail("warm-up@example.invalid");
+        return user;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ebook.userservice.config;
+
+import com.ebook.userservice.security.JwtKeyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+
+@Configuration
+@ImportRuntimeHints(JwtRuntimeHints.class)
+public class JwtConfig {
+
+    /**
+     * HMAC keeps the shared secret. RS256 and EdDSA sign with the {@code active-kid} entry of the PKCS12
+     * keystore and verify with every key entry in it; without a keystore an ephemeral key pair is generated.
+     */
+    @Bean
+    public JwtKeyManager jwtKeyManager(@Value("${com.ebook.user-service.auth.jwt.algorithm:HMAC}") JwtKeyManager.Algorithm algorithm,
+                                       @Value("${com.ebook.user-service.auth.jwt.secret-key:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}") String secretKey,
+                                       @Value("${com.ebook.user-service.auth.jwt.keystore.path:}") String keyStorePath,
+                                       @Value("${com.ebook.user-service.auth.jwt.keystore.password:}") String keyStorePassword,
+                                       @Value("${com.ebook.user-service.auth.jwt.keystore.active-kid:}") String activeKeyId,
+                                       ResourceLoader resourceLoader) throws IOException, GeneralSecurityException {
+        if (algorithm == JwtKeyManager.Algorithm.HMAC) {
+            return JwtKeyManager.hmac(secretKey.getBytes(StandardCharsets.UTF_8));
+        }
+        if (!StringUtils.hasText(keyStorePath)) {
+            return JwtKeyManager.generate(algorithm);
+        }
+
+        char[] password = keyStorePassword.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        Resource resource = resourceLoader.getResource(keyStorePath);
+        try (InputStream inputStream = resource.getInputStream()) {
+            keyStore.load(inputStream, password);
+        }
+        return JwtKeyManager.fromKeyStore(algorithm, keyStore, password, activeKeyId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ebook.userservice.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+import java.util.List;
+
+/**
+ * jjwt-api finds its implementation by class name at runtime, which a native image only supports for classes
+ * registered up front. The names are referenced as strings because jjwt-impl is a runtime-only dependency.
+ */
+public class JwtRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final List<String> REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder$Supplier",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder$Supplier",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder$Supplier",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder$Supplier",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.DefaultDynamicJwkBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultJwkParserBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultJwkSetParserBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.DefaultKeyOperationPolicyBuilder$Supplier",
+            "io.jsonwebtoken.impl.security.JwksBridge",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer");
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String type : REFLECTIVE_TYPES) {
+            hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+        hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+    }
+}
@@ -1,17 +1,51 @@
 package com.ebook.userservice.config;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.mapper.TypeMapper;
+import com.ebook.userservice.service.UserSearchIndex;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class MapperConfig {
 
+    /**
+     * The password is write-only and creationDate is never exposed, so neither is copied to the DTO.
+     */
     @Bean
-    public ModelMapper modelMapper(){
-        ModelMapper modelMapper = new ModelMapper();
-        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-        return modelMapper;
+    public TypeMapper<User, UserDTO> userToUserDTOMapper() {
+        return TypeMapper.of(User.class, UserDTO.class, user -> {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setId(user.getId());
+            userDTO.setUsername(user.getUsername());
+            userDTO.setEmail(user.getEmail());
+            return userDTO;
+        });
+    }
+
+    @Bean
+    public TypeMapper<UserSearchIndex.IndexedUser, UserDTO> indexedUserToUserDTOMapper() {
+        return TypeMapper.of(UserSearchIndex.IndexedUser.class, UserDTO.class, indexedUser -> {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setId(indexedUser.id());
+            userDTO.setUsername(indexedUser.username());
+            userDTO.setEmail(indexedUser.email());
+            return userDTO;
+        });
+    }
+
+    /**
+     * The id is read-only and creationDate is never accepted from clients, so neither is copied to the entity.
+     */
+    @Bean
+    public TypeMapper<UserDTO, User> userDTOToUserMapper() {
+        return TypeMapper.of(UserDTO.class, User.class, userDTO -> {
+            User user = new User();
+            user.setUsername(userDTO.getUsername());
+            user.setEmail(userDTO.getEmail());
+            user.setPassword(userDTO.getPassword());
+            return user;
+        });
     }
 }
@@ -0,0 +1,45 @@
+package com.ebook.userservice.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Sends connections of {@code @Transactional(readOnly = true)} work to the replica pool and everything else to
+ * the primary. The target is picked when the physical connection is fetched, so this has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the read-only flag of a transaction
+ * is only known after it has begun.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<Boolean> PRIMARY_FORCED = new ThreadLocal<>();
+
+    /**
+     * Runs {@code action} with read-only transactions routed to the primary, for reads that must see the latest
+     * writes. Only affects connections fetched inside {@code action}. A no-op when no replica is configured.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_FORCED.get();
+        PRIMARY_FORCED.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_FORCED.remove();
+            } else {
+                PRIMARY_FORCED.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_FORCED.get() == null) {
+            return Target.REPLICA;
+        }
+        return Target.PRIMARY;
+    }
+}
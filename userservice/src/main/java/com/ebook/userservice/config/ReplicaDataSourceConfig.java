@@ -0,0 +1,65 @@
+package com.ebook.userservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Replaces the single auto-configured pool with a primary pool ({@code spring.datasource.*}) and a replica pool
+ * ({@code com.ebook.user-service.datasource.replica.*}) once a replica url is set. Both pools are beans, so each
+ * publishes its own {@code hikaricp.*} metrics under {@code pool=primary} and {@code pool=replica}.
+ */
+@Configuration
+@ConditionalOnProperty("com.ebook.user-service.datasource.replica.url")
+public class ReplicaDataSourceConfig {
+
+    public static final String PRIMARY_POOL = "primary";
+    public static final String REPLICA_POOL = "replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName(PRIMARY_POOL);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("com.ebook.user-service.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${com.ebook.user-service.datasource.replica.url}") String url,
+                                              @Value("${com.ebook.user-service.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${com.ebook.user-service.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setDriverClassName(properties.determineDriverClassName());
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName(REPLICA_POOL);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Target.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Target.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,82 @@
+package com.ebook.userservice.controller;
+
+import com.ebook.userservice.controller.doc.AdminControllerDoc;
+import com.ebook.userservice.dto.TokenRevocationDTO;
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.dto.UserImportReportDTO;
+import com.ebook.userservice.dto.UserPageDTO;
+import com.ebook.userservice.service.TokenRevocationService;
+import com.ebook.userservice.service.UserExportService;
+import com.ebook.userservice.service.UserImportService;
+import com.ebook.userservice.service.UserSearchIndex;
+import com.ebook.userservice.service.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/admin")
+@RequiredArgsConstructor
+public class AdminController implements AdminControllerDoc {
+
+    private final TokenRevocationService tokenRevocationService;
+    private final UserSearchIndex userSearchIndex;
+    private final UserService userService;
+    private final UserExportService userExportService;
+    private final UserImportService userImportService;
+
+    @Override
+    @PostMapping("/token/revoke")
+    public ResponseEntity<Void> revokeToken(@RequestBody TokenRevocationDTO request) {
+        this.tokenRevocationService.revoke(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @Override
+    @GetMapping("/user/search")
+    public ResponseEntity<List<UserDTO>> searchUsers(@RequestParam("q") String query,
+                                                     @RequestParam(name = "limit", defaultValue = "10") int limit) {
+        List<UserDTO> resp = this.userSearchIndex.search(query, limit);
+        return ResponseEntity.ok(resp);
+    }
+
+    @Override
+    @GetMapping("/user")
+    public ResponseEntity<UserPageDTO> listUsers(@RequestParam(name = "afterId", defaultValue = "0") long afterId,
+                                                 @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        UserPageDTO resp = this.userService.getUsersAfter(afterId, limit);
+        return ResponseEntity.ok(resp);
+    }
+
+    /**
+     * Writes straight to the response like the import reads straight from the request, so an export of any
+     * size holds one row in memory and is not cut off by an async request timeout.
+     */
+    @Override
+    @GetMapping("/user/export")
+    public void exportUsers(@RequestParam(name = "format", defaultValue = "ndjson") String formatName,
+                            HttpServletResponse response) throws IOException {
+        UserImportService.Format format = UserImportService.Format.fromExtension(formatName);
+        response.setContentType(format.mediaType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("users." + format.extension()).build().toString());
+        this.userExportService.exportUsers(response.getOutputStream(), format);
+    }
+
+    @Override
+    @PostMapping(value = "/user/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, UserImportService.TEXT_CSV_VALUE})
+    public ResponseEntity<UserImportReportDTO> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType, InputStream body) throws IOException {
+        UserImportReportDTO resp = this.userImportService.importUsers(body, UserImportService.Format.fromContentType(contentType));
+        return ResponseEntity.ok(resp);
+    }
+}
@@ -0,0 +1,31 @@
+package com.ebook.userservice.controller;
+
+import com.ebook.userservice.controller.doc.JwksControllerDoc;
+import com.ebook.userservice.security.JwtKeyManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+public class JwksController implements JwksControllerDoc {
+
+    private final JwtKeyManager keyManager;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyManager keyManager,
+                          @Value("${com.ebook.user-service.auth.jwt.jwks.max-age:5m}") Duration maxAge) {
+        this.keyManager = keyManager;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
+    }
+
+    @Override
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok().cacheControl(this.cacheControl).body(this.keyManager.jwks());
+    }
+}
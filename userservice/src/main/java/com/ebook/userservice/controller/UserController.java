@@ -2,11 +2,19 @@ package com.ebook.userservice.controller;
 
 import com.ebook.userservice.controller.doc.UserControllerDoc;
 import com.ebook.userservice.dto.LoginResponseDTO;
+import com.ebook.userservice.dto.UserBatchDTO;
 import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.filter.AuthorizationFilter;
+import com.ebook.userservice.service.TokenRevocationService;
 import com.ebook.userservice.service.UserService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/v1/user")
@@ -14,6 +22,9 @@ import org.springframework.web.bind.annotation.*;
 public class UserController implements UserControllerDoc {
 
     private final UserService userService;
+    private final TokenRevocationService tokenRevocationService;
+
+    private static final String USER_CACHE_CONTROL = CacheControl.noCache().cachePrivate().getHeaderValue();
 
     @Override
     @PostMapping("/login")
@@ -22,9 +33,46 @@ public class UserController implements UserControllerDoc {
         return ResponseEntity.ok(resp);
     }
 
+    @Override
+    @PostMapping("/token/refresh")
+    public ResponseEntity<LoginResponseDTO> refresh(@RequestParam("refreshToken") String refreshToken) {
+        LoginResponseDTO resp = this.userService.refresh(refreshToken);
+        return ResponseEntity.ok(resp);
+    }
+
+    @Override
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        this.tokenRevocationService.logout(authorization.substring(AuthorizationFilter.BEARER.length()).trim());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Answers a matching If-None-Match with 304 straight from the ETag cache when possible. Otherwise the user
+     * is loaded and Spring compares the ETag of the response entity, so a cold cache still returns 304.
+     */
+    @Override
     @GetMapping("/{id}")
-    public ResponseEntity<UserDTO> getById(@PathVariable("id") Long id) {
-        UserDTO resp = this.userService.getUserById(id);
+    public ResponseEntity<UserDTO> getById(@PathVariable("id") Long id, ServletWebRequest webRequest) {
+        // Private: clients and the mesh may store the body, but have to revalidate it before each use
+        webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, USER_CACHE_CONTROL);
+        String cachedETag = this.userService.getCachedETag(id);
+        if (cachedETag != null && webRequest.checkNotModified(cachedETag)) {
+            return null;
+        }
+        UserService.TaggedUser resp = this.userService.getTaggedUserById(id);
+        return ResponseEntity.ok().eTag(resp.eTag()).body(resp.user());
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<UserBatchDTO> getByIds(@RequestParam("ids") List<Long> ids) {
+        UserBatchDTO resp = this.userService.getUsersByIds(ids);
+        return ResponseEntity.ok(resp);
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<UserBatchDTO> getByIdsBatch(@RequestBody List<Long> ids) {
+        UserBatchDTO resp = this.userService.getUsersByIds(ids);
         return ResponseEntity.ok(resp);
     }
 
@@ -0,0 +1,43 @@
+package com.ebook.userservice.controller.doc;
+
+import com.ebook.userservice.dto.TokenRevocationDTO;
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.dto.UserImportReportDTO;
+import com.ebook.userservice.dto.UserPageDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@Tag(name = "Admin", description = "Admin, requires ROLE_ADMIN")
+public interface AdminControllerDoc {
+
+    @Operation(summary = "Revoke Token", description = "Revokes a token, or a token id (jti), until it expires")
+    @ApiResponse(responseCode = "204", description = "Revoked")
+    ResponseEntity<Void> revokeToken(TokenRevocationDTO request);
+
+    @Operation(summary = "Search Users", description = "Typeahead: users whose username or email starts with q, ignoring case. Exact and shorter matches first, at most 50 results")
+    @ApiResponse(responseCode = "200", description = "OK", content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserDTO.class))))
+    ResponseEntity<List<UserDTO>> searchUsers(String query, int limit);
+
+    @Operation(summary = "List Users", description = "Users in id order, limit at most 500 per page. Pass nextAfterId of a page as afterId to get the next one, it is null on the last page")
+    @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserPageDTO.class)))
+    ResponseEntity<UserPageDTO> listUsers(long afterId, int limit);
+
+    @Operation(summary = "Export Users", description = "Streams all users in id order, format ndjson (one user object per line) or csv (id,username,email)")
+    @ApiResponse(responseCode = "200", description = "OK", content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")})
+    @ApiResponse(responseCode = "400", description = "Unknown format")
+    void exportUsers(String formatName, HttpServletResponse response) throws IOException;
+
+    @Operation(summary = "Import Users", description = "Streams application/x-ndjson (one user object per line) or text/csv (username,email,password) rows. Rows that fail are reported and skipped")
+    @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserImportReportDTO.class)))
+    ResponseEntity<UserImportReportDTO> importUsers(String contentType, InputStream body) throws IOException;
+}
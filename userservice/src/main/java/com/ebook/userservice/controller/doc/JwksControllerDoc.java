@@ -0,0 +1,16 @@
+package com.ebook.userservice.controller.doc;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+@Tag(name = "JWKS", description = "Token verification keys")
+public interface JwksControllerDoc {
+
+    @Operation(summary = "JSON Web Key Set", description = "Public keys that verify issued tokens, indexed by kid. Empty when tokens are signed with the shared HMAC secret")
+    @ApiResponse(responseCode = "200", description = "OK")
+    ResponseEntity<Map<String, Object>> jwks();
+}
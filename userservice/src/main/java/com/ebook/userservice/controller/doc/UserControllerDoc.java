@@ -1,6 +1,7 @@
 package com.ebook.userservice.controller.doc;
 
 import com.ebook.userservice.dto.LoginResponseDTO;
+import com.ebook.userservice.dto.UserBatchDTO;
 import com.ebook.userservice.dto.UserDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,6 +9,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
 
 @Tag(name = "User", description = "User")
 public interface UserControllerDoc {
@@ -16,9 +20,28 @@ public interface UserControllerDoc {
     @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = LoginResponseDTO.class)))
     ResponseEntity<LoginResponseDTO> login(String email, String password);
 
-    @Operation(summary = "Get User By Id")
+    @Operation(summary = "Refresh Token", description = "Exchanges a refresh token for a new access token and refresh token. The old refresh token stops working, presenting it again revokes the session")
+    @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = LoginResponseDTO.class)))
+    ResponseEntity<LoginResponseDTO> refresh(String refreshToken);
+
+    @Operation(summary = "Logout", description = "Revokes the bearer token of the request")
+    @ApiResponse(responseCode = "204", description = "Revoked")
+    ResponseEntity<Void> logout(String authorization);
+
+    @Operation(summary = "Get User By Id", description = "Returns the user with a strong ETag, send it back in If-None-Match to revalidate")
     @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserDTO.class)))
-    ResponseEntity<UserDTO> getById(Long id);
+    @ApiResponse(responseCode = "304", description = "Not Modified, the ETag in If-None-Match is current")
+    ResponseEntity<UserDTO> getById(Long id, ServletWebRequest webRequest);
+
+    @Operation(summary = "Get Users By Ids", description = "At most 1000 ids. Users are returned in the order of the requested ids, unknown ids are listed in missingIds")
+    @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserBatchDTO.class)))
+    @ApiResponse(responseCode = "400", description = "More ids than com.ebook.user-service.batch.max-ids")
+    ResponseEntity<UserBatchDTO> getByIds(List<Long> ids);
+
+    @Operation(summary = "Get Users By Ids (POST)", description = "Same as Get Users By Ids, for id sets too large for a query string")
+    @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserBatchDTO.class)))
+    @ApiResponse(responseCode = "400", description = "More ids than com.ebook.user-service.batch.max-ids")
+    ResponseEntity<UserBatchDTO> getByIdsBatch(List<Long> ids);
 
     @Operation(summary = "Create User")
     @ApiResponse(responseCode = "200", description = "OK", content = @Content(schema = @Schema(implementation = UserDTO.class)))
@@ -7,4 +7,9 @@ import lombok.Getter;
 @AllArgsConstructor
 public class LoginResponseDTO {
     private String token;
+    private String refreshToken;
+    /**
+     * Lifetime of {@link #token} in seconds.
+     */
+    private long expiresIn;
 }
@@ -0,0 +1,13 @@
+package com.ebook.userservice.dto;
+
+import lombok.Data;
+
+/**
+ * Identifies the token to revoke, either the token itself or only its {@code jti}.
+ */
+@Data
+public class TokenRevocationDTO {
+
+    private String token;
+    private String jti;
+}
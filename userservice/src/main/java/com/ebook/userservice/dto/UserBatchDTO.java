@@ -0,0 +1,13 @@
+package com.ebook.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserBatchDTO {
+    private List<UserDTO> users;
+    private List<Long> missingIds;
+}
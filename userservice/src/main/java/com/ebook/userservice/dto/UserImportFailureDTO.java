@@ -0,0 +1,12 @@
+package com.ebook.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class UserImportFailureDTO {
+    private long row;
+    private String email;
+    private String reason;
+}
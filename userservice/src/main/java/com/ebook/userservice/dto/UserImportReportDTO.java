@@ -0,0 +1,16 @@
+package com.ebook.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserImportReportDTO {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<UserImportFailureDTO> failures;
+    private boolean failuresTruncated;
+}
@@ -0,0 +1,16 @@
+package com.ebook.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserPageDTO {
+    private List<UserDTO> users;
+    /**
+     * Pass as {@code afterId} to get the next page, {@code null} on the last page.
+     */
+    private Long nextAfterId;
+}
@@ -0,0 +1,49 @@
+package com.ebook.userservice.entity;
+
+import com.ebook.userservice.audit.LoginOutcome;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One login attempt. Only declared so that {@code ddl-auto} creates the table, rows are inserted in JDBC
+ * batches by {@link com.ebook.userservice.audit.LoginAuditService}.
+ */
+@Entity
+@Table(name = "LOGIN_AUDIT", indexes = {
+        @Index(name = "IDX_LOGIN_AUDIT_OCCURRED_AT", columnList = "occurred_at"),
+        @Index(name = "IDX_LOGIN_AUDIT_EMAIL", columnList = "email")
+})
+@Data
+@NoArgsConstructor
+public class LoginAudit {
+
+    public static final int EMAIL_LENGTH = 255;
+    public static final int IP_LENGTH = 64;
+    public static final int USER_AGENT_LENGTH = 512;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "email", length = EMAIL_LENGTH)
+    private String email;
+
+    @Column(name = "ip", length = IP_LENGTH)
+    private String ip;
+
+    @Column(name = "user_agent", length = USER_AGENT_LENGTH)
+    private String userAgent;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "outcome", nullable = false, length = 16)
+    private LoginOutcome outcome;
+
+    @Column(name = "latency_micros", nullable = false)
+    private long latencyMicros;
+}
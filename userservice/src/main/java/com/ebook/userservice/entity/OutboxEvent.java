@@ -0,0 +1,40 @@
+package com.ebook.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * An event waiting to be published, inserted in the same transaction as the change it describes. Rows are
+ * deleted by {@link com.ebook.userservice.outbox.OutboxRelay} once the publisher has acknowledged them.
+ */
+@Entity
+@Table(name = "OUTBOX_EVENTS")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+
+    public static final String ID_SEQUENCE = "OUTBOX_EVENTS_SEQ";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = 50)
+    private Long id;
+
+    @Column(name = "aggregate_type", nullable = false, length = 64)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "payload", nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,45 @@
+package com.ebook.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A refresh token, stored only as the SHA-256 hash of its value. Every token of one login belongs to the same
+ * family. A rotated token is kept until it expires, so that presenting it again can be detected as reuse.
+ */
+@Entity
+@Table(name = "REFRESH_TOKENS", indexes = {
+        @Index(name = "IDX_REFRESH_TOKENS_FAMILY_ID", columnList = "family_id"),
+        @Index(name = "IDX_REFRESH_TOKENS_EXPIRES_AT", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshToken {
+
+    @Id
+    @Column(name = "token_hash")
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false)
+    private String familyId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    /**
+     * Set once the token has been exchanged for a new one.
+     */
+    @Column(name = "rotated_at")
+    private Instant rotatedAt;
+}
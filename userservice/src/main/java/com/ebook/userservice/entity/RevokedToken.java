@@ -0,0 +1,32 @@
+package com.ebook.userservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A token id ({@code jti}) that must no longer be accepted. Rows are only needed until the token
+ * itself expires, after which the signature check rejects it anyway.
+ */
+@Entity
+@Table(name = "REVOKED_TOKENS", indexes = {
+        @Index(name = "IDX_REVOKED_TOKENS_EXPIRES_AT", columnList = "expires_at"),
+        @Index(name = "IDX_REVOKED_TOKENS_REVOKED_AT", columnList = "revoked_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    private String jti;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
@@ -3,29 +3,71 @@ package com.ebook.userservice.entity;
 import jakarta.persistence.*;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name = "USERS")
+@Table(name = "USERS", indexes = @Index(name = User.EMAIL_UNIQUE_INDEX, columnList = "email_normalized", unique = true))
 @Data
 public class User implements UserDetails {
 
+    public static final String ID_SEQUENCE = "USERS_SEQ";
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final String EMAIL_UNIQUE_INDEX = "UK_USERS_EMAIL_NORMALIZED";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     private String username;
     private String email;
+
+    /**
+     * Lower-cased, trimmed copy of {@link #email}. Unique, and the column all email lookups go through.
+     */
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
     private String password;
     private LocalDateTime creationDate;
 
+    /**
+     * Incremented on every update, part of the user's ETag.
+     */
+    @Version
+    private Long version;
+
+    /**
+     * Optional role without the {@code ROLE_} prefix, e.g. {@code ADMIN}. Only assigned in the database.
+     */
+    private String role;
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Strong ETag of the user's representation, changes whenever the row is updated.
+     */
+    public static String eTag(Long id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    @PrePersist
+    @PreUpdate
+    void updateEmailNormalized() {
+        this.emailNormalized = normalizeEmail(this.email);
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return List.of();
+        return this.role == null ? List.of() : List.of(new SimpleGrantedAuthority("ROLE_" + this.role));
     }
 
     @Override
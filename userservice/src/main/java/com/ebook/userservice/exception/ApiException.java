@@ -0,0 +1,31 @@
+package com.ebook.userservice.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Base of the expected, client-caused errors. Each one carries the status and error code it is answered with.
+ * These are control flow rather than bugs, so no stack trace is captured, which makes throwing one about
+ * as cheap as returning a value.
+ */
+@Getter
+public abstract class ApiException extends RuntimeException {
+
+    private final HttpStatus status;
+    private final String code;
+    /**
+     * Sent as Retry-After when positive.
+     */
+    private final long retryAfterSeconds;
+
+    protected ApiException(HttpStatus status, String code, String message) {
+        this(status, code, message, 0);
+    }
+
+    protected ApiException(HttpStatus status, String code, String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.status = status;
+        this.code = code;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -2,17 +2,78 @@ package com.ebook.userservice.exception;
 
 
 import com.ebook.userservice.util.RestUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 @RestControllerAdvice
+@Slf4j
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * {@code userservice.errors} counters by error code, every code is always answered with the same status.
+     */
+    private final Map<String, Counter> errorCounters = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @ExceptionHandler(RuntimeException.class)
-    public ProblemDetail handle(RuntimeException e) {
-        return RestUtil.createProblemDetail(HttpStatus.INTERNAL_SERVER_ERROR, "RuntimeException", e.getMessage());
+    public ProblemDetail handle(RuntimeException e, HttpServletRequest request) {
+        log.error("Unhandled exception on {} {}", request.getMethod(), request.getRequestURI(), e);
+        return this.createProblemDetail(request, HttpStatus.INTERNAL_SERVER_ERROR, "RuntimeException", e.getMessage());
+    }
+
+    @ExceptionHandler(ApiException.class)
+    public ResponseEntity<ProblemDetail> handle(ApiException e, HttpServletRequest request) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(e.getStatus());
+        if (e.getRetryAfterSeconds() > 0) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+        }
+        return response.body(this.createProblemDetail(request, e.getStatus(), e.getCode(), e.getMessage()));
+    }
+
+    /**
+     * Bad credentials on login, and requests to protected endpoints without a valid token.
+     */
+    @ExceptionHandler(AuthenticationException.class)
+    public ResponseEntity<ProblemDetail> handle(AuthenticationException e, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+                .body(this.createProblemDetail(request, HttpStatus.UNAUTHORIZED, "Unauthorized", e.getMessage()));
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ProblemDetail> handle(AccessDeniedException e, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(this.createProblemDetail(request, HttpStatus.FORBIDDEN, "AccessDenied", e.getMessage()));
+    }
+
+    /**
+     * Builds the response body and counts it in {@code userservice.errors}, tagged by error code and status.
+     */
+    private ProblemDetail createProblemDetail(HttpServletRequest request, HttpStatus status, String code, String detail) {
+        this.errorCounters.computeIfAbsent(code, key -> Counter.builder("userservice.errors")
+                        .tag("code", key)
+                        .tag("status", String.valueOf(status.value()))
+                        .register(this.meterRegistry))
+                .increment();
+        return RestUtil.createProblemDetail(request, status, code, detail, null);
     }
 
 
@@ -0,0 +1,13 @@
+package com.ebook.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A request parameter is out of the accepted range or not one of the accepted values. Mapped to 400.
+ */
+public class InvalidRequestException extends ApiException {
+
+    public InvalidRequestException(String message) {
+        super(HttpStatus.BAD_REQUEST, "InvalidRequest", message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ebook.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A token given in a request body could not be verified. Mapped to 400.
+ */
+public class InvalidTokenException extends ApiException {
+
+    public InvalidTokenException(String message) {
+        super(HttpStatus.BAD_REQUEST, "InvalidToken", message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ebook.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a bounded worker pool cannot accept more work. Mapped to 503 with a Retry-After header.
+ */
+public class ServiceBusyException extends ApiException {
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "ServiceBusy", message, retryAfterSeconds);
+    }
+}
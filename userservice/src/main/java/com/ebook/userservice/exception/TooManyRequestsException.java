@@ -0,0 +1,13 @@
+package com.ebook.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Thrown when a client exceeds a rate limit. Mapped to 429 with a Retry-After header.
+ */
+public class TooManyRequestsException extends ApiException {
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "TooManyRequests", message, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ebook.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * A user with the same (normalized) email already exists. Mapped to 409.
+ */
+public class UserAlreadyExistsException extends ApiException {
+
+    public UserAlreadyExistsException(String message) {
+        super(HttpStatus.CONFLICT, "UserAlreadyExists", message);
+    }
+}
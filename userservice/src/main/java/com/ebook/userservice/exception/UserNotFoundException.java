@@ -0,0 +1,13 @@
+package com.ebook.userservice.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * No user with the requested id. Mapped to 404.
+ */
+public class UserNotFoundException extends ApiException {
+
+    public UserNotFoundException(String message) {
+        super(HttpStatus.NOT_FOUND, "UserNotFound", message);
+    }
+}
@@ -1,45 +1,64 @@
 package com.ebook.userservice.filter;
 
+import com.ebook.userservice.security.AuthMode;
+import com.ebook.userservice.security.JwtPrincipal;
 import com.ebook.userservice.service.JwtService;
-import com.ebook.userservice.service.UserService;
+import com.ebook.userservice.service.TokenDenylist;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.HandlerExceptionResolver;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 @Slf4j
 public class AuthorizationFilter extends OncePerRequestFilter {
 
     public static final String BEARER = "Bearer ";
+    private static final String FILTER_METRIC = "userservice.auth.filter";
     private final JwtService jwtService;
     private final HandlerExceptionResolver resolver;
-    private final UserService userService;
+    private final UserDetailsService userDetailsService;
+    private final TokenDenylist tokenDenylist;
+    private final AuthMode authMode;
+    private final Timer verifyTimer;
+    private final Timer principalTimer;
 
-    public AuthorizationFilter(JwtService jwtService, @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver, UserService userService) {
+    public AuthorizationFilter(JwtService jwtService, @Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver, UserDetailsService userDetailsService, TokenDenylist tokenDenylist,
+                               @Value("${com.ebook.user-service.auth.mode:DATABASE}") AuthMode authMode, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.resolver = resolver;
-        this.userService = userService;
+        this.userDetailsService = userDetailsService;
+        this.tokenDenylist = tokenDenylist;
+        this.authMode = authMode;
+        this.verifyTimer = Timer.builder(FILTER_METRIC).tag("phase", "verify").tag("mode", authMode.name()).register(meterRegistry);
+        this.principalTimer = Timer.builder(FILTER_METRIC).tag("phase", "principal").tag("mode", authMode.name()).register(meterRegistry);
     }
 
     private void authenticate(HttpServletRequest req) {
         String header = req.getHeader(HttpHeaders.AUTHORIZATION);
         if (header != null && header.startsWith(BEARER)) {
             String jwt = header.substring(BEARER.length()).trim();
-            if (this.jwtService.validateJwtToken(jwt)) {
-                String mail = this.jwtService.getEmailFromJwtToken(jwt);
-                UserDetails userDetails = this.userService.loadUserByUsername(mail);
+            Optional<Claims> claims = this.verifyTimer.record(() -> this.jwtService.verifyJwtToken(jwt));
+            // Checked after the verified-token cache, so a cached token is still rejected once revoked
+            if (claims.isPresent() && !this.tokenDenylist.isRevoked(claims.get())) {
+                UserDetails userDetails = this.principalTimer.record(() -> this.loadPrincipal(claims.get()));
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null,userDetails.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -47,6 +66,16 @@ public class AuthorizationFilter extends OncePerRequestFilter {
         }
     }
 
+    private UserDetails loadPrincipal(Claims claims) {
+        if (this.authMode == AuthMode.CLAIMS) {
+            Optional<JwtPrincipal> principal = this.jwtService.getPrincipal(claims);
+            if (principal.isPresent()) {
+                return principal.get();
+            }
+        }
+        return this.userDetailsService.loadUserByUsername(claims.getSubject());
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain filterChain) throws ServletException, IOException {
         try {
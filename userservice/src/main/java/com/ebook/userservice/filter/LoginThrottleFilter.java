@@ -0,0 +1,100 @@
+package com.ebook.userservice.filter;
+
+import com.ebook.userservice.audit.LoginAuditService;
+import com.ebook.userservice.audit.LoginOutcome;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.exception.TooManyRequestsException;
+import com.ebook.userservice.security.GcraRateLimiter;
+import com.ebook.userservice.util.RestUtil;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits login attempts per client IP and per target email before any password is checked, so a
+ * credential stuffing burst is turned away with 429 instead of costing a BCrypt verification per attempt.
+ */
+@Component
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    public static final String LOGIN_PATH = "/api/v1/user/login";
+    private static final String THROTTLED_METRIC = "userservice.login.throttled";
+    private static final String KEYS_METRIC = "userservice.login.throttle.keys";
+
+    private final HandlerExceptionResolver resolver;
+    private final LoginAuditService loginAudit;
+    private final boolean enabled;
+    private final GcraRateLimiter ipLimiter;
+    private final GcraRateLimiter accountLimiter;
+    private final Counter ipThrottled;
+    private final Counter accountThrottled;
+
+    public LoginThrottleFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver resolver,
+                               @Value("${com.ebook.user-service.auth.login-throttle.enabled:true}") boolean enabled,
+                               @Value("${com.ebook.user-service.auth.login-throttle.ip.permits:30}") int ipPermits,
+                               @Value("${com.ebook.user-service.auth.login-throttle.ip.period:1m}") Duration ipPeriod,
+                               @Value("${com.ebook.user-service.auth.login-throttle.ip.burst:10}") int ipBurst,
+                               @Value("${com.ebook.user-service.auth.login-throttle.account.permits:5}") int accountPermits,
+                               @Value("${com.ebook.user-service.auth.login-throttle.account.period:1m}") Duration accountPeriod,
+                               @Value("${com.ebook.user-service.auth.login-throttle.account.burst:5}") int accountBurst,
+                               @Value("${com.ebook.user-service.auth.login-throttle.max-keys:100000}") long maxKeys,
+                               LoginAuditService loginAudit, MeterRegistry meterRegistry) {
+        this.resolver = resolver;
+        this.loginAudit = loginAudit;
+        this.enabled = enabled;
+        this.ipLimiter = new GcraRateLimiter(ipPermits, ipPeriod, ipBurst, maxKeys);
+        this.accountLimiter = new GcraRateLimiter(accountPermits, accountPeriod, accountBurst, maxKeys);
+        this.ipThrottled = Counter.builder(THROTTLED_METRIC).tag("key", "ip").register(meterRegistry);
+        this.accountThrottled = Counter.builder(THROTTLED_METRIC).tag("key", "account").register(meterRegistry);
+        Gauge.builder(KEYS_METRIC, this.ipLimiter, GcraRateLimiter::size).tag("key", "ip").register(meterRegistry);
+        Gauge.builder(KEYS_METRIC, this.accountLimiter, GcraRateLimiter::size).tag("key", "account").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${com.ebook.user-service.auth.login-throttle.eviction-interval:1m}")
+    public void evictIdleKeys() {
+        this.ipLimiter.evictIdle();
+        this.accountLimiter.evictIdle();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !this.enabled || !HttpMethod.POST.matches(request.getMethod()) || !LOGIN_PATH.equals(request.getServletPath());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain filterChain) throws ServletException, IOException {
+        long waitNanos = this.ipLimiter.tryAcquire(RestUtil.getIp(req));
+        String email = User.normalizeEmail(req.getParameter("email"));
+        if (waitNanos > 0) {
+            this.ipThrottled.increment();
+        } else {
+            waitNanos = email == null ? 0 : this.accountLimiter.tryAcquire(email);
+            if (waitNanos > 0) {
+                this.accountThrottled.increment();
+            }
+        }
+
+        if (waitNanos > 0) {
+            this.loginAudit.record(req, email, LoginOutcome.THROTTLED, 0);
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            this.resolver.resolveException(req, res, null, new TooManyRequestsException("Too many login attempts", retryAfterSeconds));
+            return;
+        }
+        filterChain.doFilter(req, res);
+    }
+}
@@ -0,0 +1,38 @@
+package com.ebook.userservice.mapper;
+
+import java.util.function.Function;
+
+/**
+ * Hand-written conversion between two types, registered as a bean and used through
+ * {@link com.ebook.userservice.service.ModelService}.
+ *
+ * @param <S> source type
+ * @param <D> destination type
+ */
+public interface TypeMapper<S, D> {
+
+    Class<S> sourceType();
+
+    Class<D> destinationType();
+
+    D map(S source);
+
+    static <S, D> TypeMapper<S, D> of(Class<S> sourceType, Class<D> destinationType, Function<S, D> mapping) {
+        return new TypeMapper<>() {
+            @Override
+            public Class<S> sourceType() {
+                return sourceType;
+            }
+
+            @Override
+            public Class<D> destinationType() {
+                return destinationType;
+            }
+
+            @Override
+            public D map(S source) {
+                return mapping.apply(source);
+            }
+        };
+    }
+}
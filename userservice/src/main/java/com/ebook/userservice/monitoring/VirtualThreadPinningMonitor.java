@@ -0,0 +1,99 @@
+package com.ebook.userservice.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, typically because they block
+ * inside a {@code synchronized} block of the JDBC driver or the connection pool. Every pinning longer
+ * than the threshold is recorded in the {@code userservice.virtualthreads.pinned} timer, and the first
+ * occurrence of each distinct call site is logged with its stack trace.
+ * <p>
+ * Only active when {@code spring.threads.virtual.enabled=true}.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_REPORTED_SITES = 100;
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Timer pinnedTimer;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${com.ebook.user-service.virtual-threads.pinning-threshold:20ms}") Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinnedTimer = Timer.builder("userservice.virtualthreads.pinned")
+                .description("Time virtual threads spent pinned to their carrier thread")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        this.recordingStream = new RecordingStream();
+        this.recordingStream.enable(PINNED_EVENT).withThreshold(this.threshold).withStackTrace();
+        this.recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        this.recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started, threshold {} ms", this.threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (this.recordingStream != null) {
+            this.recordingStream.close();
+            this.recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return this.recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        this.pinnedTimer.record(event.getDuration());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || this.reportedSites.size() >= MAX_REPORTED_SITES) {
+            return;
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        String site = frames.stream()
+                .map(VirtualThreadPinningMonitor::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk."))
+                .findFirst()
+                .orElse("unknown");
+        if (this.reportedSites.add(site)) {
+            String trace = frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(VirtualThreadPinningMonitor::describe)
+                    .collect(Collectors.joining("\n\tat ", "\tat ", ""));
+            log.warn("Virtual thread pinned for {} ms at {}\n{}", event.getDuration().toMillis(), site, trace);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,55 @@
+package com.ebook.userservice.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Stand-in publisher that appends each message as one JSON line to a file. A batch is acknowledged only
+ * after it has been forced to disk, which gives the same guarantee as a broker acknowledging a send.
+ */
+@Component
+@ConditionalOnProperty(name = "com.ebook.user-service.outbox.publisher", havingValue = "file")
+public class FileOutboxPublisher implements OutboxPublisher {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileOutboxPublisher(ObjectMapper objectMapper,
+                               @Value("${com.ebook.user-service.outbox.file.path:./data/outbox.ndjson}") Path path) throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+        StringBuilder lines = new StringBuilder(batch.size() * 256);
+        for (OutboxMessage message : batch) {
+            lines.append(this.objectMapper.writeValueAsString(message)).append('\n');
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            this.channel.write(buffer);
+        }
+        this.channel.force(false);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ebook.userservice.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Stand-in publisher that keeps the last {@code retained} messages in memory, for local runs and tests.
+ * The default until a broker publisher exists.
+ */
+@Component
+@ConditionalOnProperty(name = "com.ebook.user-service.outbox.publisher", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxPublisher implements OutboxPublisher {
+
+    private final int retained;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxPublisher(@Value("${com.ebook.user-service.outbox.memory.retained:1000}") int retained) {
+        this.retained = retained;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (this.messages.size() == this.retained) {
+                this.messages.removeFirst();
+            }
+            this.messages.addLast(message);
+        }
+    }
+
+    /**
+     * @return the retained messages, oldest first
+     */
+    public synchronized List<OutboxMessage> published() {
+        return List.copyOf(this.messages);
+    }
+}
@@ -0,0 +1,14 @@
+package com.ebook.userservice.outbox;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.Instant;
+
+/**
+ * An outbox row as handed to the {@link OutboxPublisher}. The id is unique per event, so consumers can drop
+ * redeliveries by id. Ids come from a pooled sequence, each replica allocating its own block, so they say
+ * nothing about the order events were inserted or committed in.
+ */
+public record OutboxMessage(long id, String aggregateType, String aggregateId, String eventType,
+                            @JsonRawValue String payload, Instant createdAt) {
+}
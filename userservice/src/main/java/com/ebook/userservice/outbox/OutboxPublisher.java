@@ -0,0 +1,16 @@
+package com.ebook.userservice.outbox;
+
+import java.util.List;
+
+/**
+ * Sends outbox events to their consumers, for example a Kafka topic.
+ */
+public interface OutboxPublisher {
+
+    /**
+     * Publishes the batch in order. Returning normally acknowledges every message in it, after which they are
+     * deleted from the outbox. Throwing leaves the whole batch in the outbox to be published again, so a
+     * message may be delivered more than once but is never lost.
+     */
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
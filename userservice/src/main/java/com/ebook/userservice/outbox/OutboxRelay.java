@@ -0,0 +1,145 @@
+package com.ebook.userservice.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves events from OUTBOX_EVENTS to the {@link OutboxPublisher} in batches. Each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED}, published and deleted in one transaction, so replicas relay disjoint batches
+ * and a batch is removed only once the publisher has acknowledged it. A failed publish or a crash before the
+ * commit leaves the batch in place to be published again: delivery is at least once and unordered.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String METRIC_PREFIX = "userservice.outbox.";
+    private static final String CLAIM_SQL = "SELECT ID, AGGREGATE_TYPE, AGGREGATE_ID, EVENT_TYPE, PAYLOAD, CREATED_AT FROM OUTBOX_EVENTS "
+            + "ORDER BY ID FETCH FIRST ? ROWS ONLY FOR UPDATE SKIP LOCKED";
+    private static final String BACKLOG_SQL = "SELECT COUNT(*), MIN(CREATED_AT) FROM OUTBOX_EVENTS";
+    private static final RowMapper<OutboxMessage> MESSAGE_MAPPER = (rs, rowNum) -> new OutboxMessage(rs.getLong(1),
+            rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getTimestamp(6).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPublisher publisher;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer publishTimer;
+    private final Timer lagTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestAgeMillis = new AtomicLong();
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, OutboxPublisher publisher,
+                       @Value("${com.ebook.user-service.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${com.ebook.user-service.outbox.relay.batch-size:100}") int batchSize,
+                       @Value("${com.ebook.user-service.outbox.relay.max-batches-per-poll:50}") int maxBatchesPerPoll,
+                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerPoll = maxBatchesPerPoll;
+        this.published = Counter.builder(METRIC_PREFIX + "published").register(meterRegistry);
+        this.failures = Counter.builder(METRIC_PREFIX + "failures").register(meterRegistry);
+        this.publishTimer = Timer.builder(METRIC_PREFIX + "publish").register(meterRegistry);
+        this.lagTimer = Timer.builder(METRIC_PREFIX + "lag")
+                .description("Time from the outbox insert to the publisher acknowledging the event")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "pending", this.pending, AtomicLong::get).register(meterRegistry);
+        TimeGauge.builder(METRIC_PREFIX + "oldest.age", this.oldestAgeMillis, TimeUnit.MILLISECONDS, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Relays full batches until the outbox is drained or {@code max-batches-per-poll} is reached, so a backlog
+     * is worked off without waiting for the next poll and one poll cannot run forever.
+     */
+    @Scheduled(fixedDelayString = "${com.ebook.user-service.outbox.relay.poll-interval:500ms}")
+    public void relay() {
+        if (!this.enabled) {
+            return;
+        }
+        try {
+            int relayed;
+            int batches = 0;
+            do {
+                relayed = this.relayBatch();
+                batches++;
+            } while (relayed == this.batchSize && batches < this.maxBatchesPerPoll);
+        } catch (RuntimeException e) {
+            this.failures.increment();
+            log.warn("Outbox relay failed, the batch stays in the outbox: {}", e.getMessage());
+        }
+        this.updateBacklog();
+    }
+
+    /**
+     * @return number of events published and acknowledged
+     */
+    int relayBatch() {
+        Integer relayed = this.transactionTemplate.execute(status -> {
+            List<OutboxMessage> batch = this.jdbcTemplate.query(CLAIM_SQL, MESSAGE_MAPPER, this.batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            long start = System.nanoTime();
+            this.publish(batch);
+            this.publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            this.jdbcTemplate.batchUpdate("DELETE FROM OUTBOX_EVENTS WHERE ID = ?", batch, batch.size(),
+                    (ps, message) -> ps.setLong(1, message.id()));
+
+            Instant now = Instant.now();
+            for (OutboxMessage message : batch) {
+                this.lagTimer.record(Duration.between(message.createdAt(), now));
+            }
+            return batch.size();
+        });
+        int count = relayed == null ? 0 : relayed;
+        this.published.increment(count);
+        return count;
+    }
+
+    private void publish(List<OutboxMessage> batch) {
+        try {
+            this.publisher.publish(batch);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Publishing " + batch.size() + " outbox events failed", e);
+        }
+    }
+
+    private void updateBacklog() {
+        try {
+            this.jdbcTemplate.query(BACKLOG_SQL, rs -> {
+                this.pending.set(rs.getLong(1));
+                Timestamp oldest = rs.getTimestamp(2);
+                this.oldestAgeMillis.set(oldest == null ? 0 : Math.max(0, System.currentTimeMillis() - oldest.getTime()));
+            });
+        } catch (RuntimeException e) {
+            log.debug("Could not read the outbox backlog: {}", e.getMessage());
+        }
+    }
+}
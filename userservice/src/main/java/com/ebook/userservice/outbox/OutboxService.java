@@ -0,0 +1,61 @@
+package com.ebook.userservice.outbox;
+
+import com.ebook.userservice.entity.OutboxEvent;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends events to the outbox. Only callable inside the transaction that makes the change, so the event is
+ * stored if and only if the change is committed. Publishing is left to {@link OutboxRelay}.
+ */
+@Service
+public class OutboxService {
+
+    private static final String USER_AGGREGATE = "User";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param users saved users, their ids must already be assigned
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userCreated(Collection<User> users) {
+        Instant now = Instant.now();
+        List<OutboxEvent> events = new ArrayList<>(users.size());
+        for (User user : users) {
+            UserCreatedEvent payload = new UserCreatedEvent(user.getId(), user.getUsername(), user.getEmail());
+            events.add(this.event(USER_AGGREGATE, String.valueOf(user.getId()), UserCreatedEvent.TYPE, payload, now));
+        }
+        this.outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEvent event(String aggregateType, String aggregateId, String eventType, Object payload, Instant now) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        try {
+            event.setPayload(this.objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + eventType + " event", e);
+        }
+        event.setCreatedAt(now);
+        return event;
+    }
+}
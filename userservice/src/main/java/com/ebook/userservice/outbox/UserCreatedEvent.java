@@ -0,0 +1,9 @@
+package com.ebook.userservice.outbox;
+
+/**
+ * Payload of {@code UserCreated}. Carries no credentials, the time of the event is the message's {@code createdAt}.
+ */
+public record UserCreatedEvent(Long userId, String username, String email) {
+
+    public static final String TYPE = "UserCreated";
+}
@@ -0,0 +1,33 @@
+package com.ebook.userservice.repository;
+
+import com.ebook.userservice.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Marks the token as rotated unless it already is. Only one of several concurrent callers gets 1.
+     */
+    @Transactional
+    @Modifying
+    @Query("update RefreshToken t set t.rotatedAt = :now where t.tokenHash = :tokenHash and t.rotatedAt is null")
+    int markRotated(@Param("tokenHash") String tokenHash, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken t where t.familyId = :familyId")
+    int deleteFamily(@Param("familyId") String familyId);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken t where t.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
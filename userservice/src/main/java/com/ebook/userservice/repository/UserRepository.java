@@ -1,13 +1,53 @@
 package com.ebook.userservice.repository;
 
 import com.ebook.userservice.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
-    Optional<User> findByEmail(String email);
+    int STREAM_FETCH_SIZE = 1000;
+
+    Optional<User> findByEmailNormalized(String emailNormalized);
+
+    /**
+     * Case-insensitive lookup served by the unique index on the normalized email.
+     */
+    default Optional<User> findByEmail(String email) {
+        return this.findByEmailNormalized(User.normalizeEmail(email));
+    }
+
+    List<User> findByIdIn(Collection<Long> ids);
+
+    /**
+     * Keyset page: seeks on the primary key index, so deep pages cost as little as the first one.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * All users in id order, fetched from the driver {@link #STREAM_FETCH_SIZE} rows at a time. Has to be
+     * consumed and closed inside a transaction. Entities are loaded read-only, without dirty-checking snapshots.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u from User u order by u.id")
+    Stream<User> streamAllOrderById();
+
+    @Query("select u.emailNormalized from User u where u.emailNormalized in :emails")
+    Set<String> findExistingNormalizedEmails(@Param("emails") Collection<String> normalizedEmails);
 }
@@ -0,0 +1,15 @@
+package com.ebook.userservice.security;
+
+/**
+ * How {@link com.ebook.userservice.filter.AuthorizationFilter} resolves the principal of a bearer token.
+ */
+public enum AuthMode {
+    /**
+     * Load the {@link com.ebook.userservice.entity.User} entity by the token subject.
+     */
+    DATABASE,
+    /**
+     * Build a {@link JwtPrincipal} from the verified token claims, without any database access.
+     */
+    CLAIMS
+}
@@ -0,0 +1,78 @@
+package com.ebook.userservice.security;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size Bloom filter over strings. {@link #mightContain(String)} is lock-free and never returns a false
+ * negative for a value whose {@link #put(String)} has returned. Values cannot be removed, the owner rebuilds
+ * a new filter instead.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedEntries   number of values the filter is sized for
+     * @param falsePositiveRate false positive rate at {@code expectedEntries}, e.g. {@code 0.01}
+     */
+    public BloomFilter(long expectedEntries, double falsePositiveRate) {
+        long entries = Math.max(expectedEntries, 1);
+        long bits = (long) Math.ceil(-entries * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = wordCount * 64L;
+        this.hashCount = Math.max(1, (int) Math.round((double) this.bitCount / entries * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = this.bitIndex(h1, h2, i);
+            long mask = 1L << bit;
+            int word = (int) (bit >>> 6);
+            long current = this.words.get(word);
+            while ((current & mask) == 0 && !this.words.compareAndSet(word, current, current | mask)) {
+                current = this.words.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < this.hashCount; i++) {
+            long bit = this.bitIndex(h1, h2, i);
+            if ((this.words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long bitIndex(int h1, int h2, int i) {
+        // Kirsch-Mitzenmacher: k indexes from two hashes
+        return ((h1 + (long) i * h2) & Long.MAX_VALUE) % this.bitCount;
+    }
+
+    /**
+     * FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer so both halves are usable.
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb93fe53a7ed9L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,163 @@
+package com.ebook.userservice.security;
+
+import com.ebook.userservice.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a CPU-heavy {@link PasswordEncoder} on a dedicated, bounded pool instead of the request thread.
+ * Once the queue is full new work is rejected with {@link ServiceBusyException} rather than piling up,
+ * so a login burst can neither exhaust the servlet threads nor starve cheap requests of CPU.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final String METRIC_PREFIX = "userservice.password.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final long retryAfterSeconds;
+    private final Timer waitTimer;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration retryAfter, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.executor.prestartAllCoreThreads();
+        this.threads = threads;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+
+        Gauge.builder(METRIC_PREFIX + "queue.depth", this.executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "active", this.executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashing tasks currently running")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder(METRIC_PREFIX + "wait")
+                .description("Time a password hashing task spent queued before a worker picked it up")
+                .register(meterRegistry);
+        this.encodeTimer = Timer.builder(METRIC_PREFIX + "hash").tag("operation", "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder(METRIC_PREFIX + "hash").tag("operation", "matches").register(meterRegistry);
+        this.rejectedCounter = Counter.builder(METRIC_PREFIX + "rejected")
+                .description("Password hashing tasks rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.submit(() -> this.encodeTimer.record(() -> this.delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        Boolean matches = this.submit(() -> this.matchesTimer.record(() -> this.delegate.matches(rawPassword, encodedPassword)));
+        return Boolean.TRUE.equals(matches);
+    }
+
+    /**
+     * Encodes many passwords in parallel for bulk work. At most one task per worker is queued at a time,
+     * so interactive logins keep getting a fair share of the pool. When the queue is full the password is
+     * encoded on the calling thread instead of being rejected.
+     *
+     * @return encoded passwords, in the order of {@code rawPasswords}
+     */
+    public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+        String[] encoded = new String[rawPasswords.size()];
+        Deque<Map.Entry<Integer, Future<String>>> inFlight = new ArrayDeque<>(this.threads);
+        for (int i = 0; i < rawPasswords.size(); i++) {
+            if (inFlight.size() >= this.threads) {
+                Map.Entry<Integer, Future<String>> oldest = inFlight.poll();
+                encoded[oldest.getKey()] = this.await(oldest.getValue());
+            }
+            CharSequence rawPassword = rawPasswords.get(i);
+            Callable<String> task = () -> this.encodeTimer.record(() -> this.delegate.encode(rawPassword));
+            try {
+                inFlight.add(Map.entry(i, this.executor.submit(this.timed(task))));
+            } catch (RejectedExecutionException e) {
+                encoded[i] = this.encodeTimer.record(() -> this.delegate.encode(rawPassword));
+            }
+        }
+        for (Map.Entry<Integer, Future<String>> entry : inFlight) {
+            encoded[entry.getKey()] = this.await(entry.getValue());
+        }
+        return Arrays.asList(encoded);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return this.delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = this.executor.submit(this.timed(task));
+        } catch (RejectedExecutionException e) {
+            this.rejectedCounter.increment();
+            throw new ServiceBusyException("Too many password operations in progress, try again later", this.retryAfterSeconds);
+        }
+        return this.await(future);
+    }
+
+    private <T> Callable<T> timed(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        return () -> {
+            this.waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            return task.call();
+        };
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        this.executor.shutdown();
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hasher-" + this.counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ebook.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key rate limiter using the generic cell rate algorithm, the token bucket expressed as a single
+ * "theoretical arrival time" per key. A key costs one {@link AtomicLong} and is updated with a CAS, no locks.
+ * The number of keys is bounded by size. Keys whose bucket has refilled carry no state and are dropped by
+ * {@link #evictIdle()}, which keeps time based expiry off the lookup path.
+ */
+public final class GcraRateLimiter {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> arrivalTimes;
+
+    /**
+     * @param permits permits per {@code period}
+     * @param burst   permits that may be used back to back
+     * @param maxKeys bound on tracked keys, past it the least valuable keys are evicted
+     */
+    public GcraRateLimiter(int permits, Duration period, int burst, long maxKeys) {
+        this.emissionIntervalNanos = period.toNanos() / permits;
+        this.burstToleranceNanos = this.emissionIntervalNanos * burst;
+        this.arrivalTimes = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * Drops keys whose bucket is full again. Racing with {@link #tryAcquire(String)} can at most hand out
+     * one extra permit for a key.
+     */
+    public void evictIdle() {
+        long now = System.nanoTime();
+        this.arrivalTimes.asMap().values().removeIf(arrivalTime -> arrivalTime.get() <= now);
+    }
+
+    public long size() {
+        return this.arrivalTimes.estimatedSize();
+    }
+
+    /**
+     * @return 0 if a permit was taken, otherwise the nanos until one becomes available
+     */
+    public long tryAcquire(String key) {
+        AtomicLong arrivalTime = this.arrivalTimes.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = System.nanoTime();
+        while (true) {
+            long current = arrivalTime.get();
+            long next = Math.max(current, now) + this.emissionIntervalNanos;
+            long wait = next - now - this.burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrivalTime.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
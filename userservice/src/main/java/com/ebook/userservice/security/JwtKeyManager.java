@@ -0,0 +1,182 @@
+package com.ebook.userservice.security;
+
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.ProtectedHeader;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.SecretKey;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keys used to sign and verify tokens. In {@link Algorithm#HMAC} mode a single shared secret does both and
+ * tokens carry no {@code kid}. In RS256/EdDSA mode tokens are signed with the active private key and carry its
+ * {@code kid}, and verification looks the public key up by {@code kid}. Retired keys stay in the verification
+ * set until the tokens they signed have expired, which is what makes rotation possible without a logout.
+ */
+@Slf4j
+public final class JwtKeyManager {
+
+    public enum Algorithm {
+        HMAC, RS256, EdDSA
+    }
+
+    private final Algorithm algorithm;
+    private final SecretKey secretKey;
+    private final String signingKeyId;
+    private final PrivateKey signingKey;
+    private final SignatureAlgorithm signatureAlgorithm;
+    private final Map<String, PublicKey> verificationKeys;
+    private final Map<String, Object> jwks;
+    private final Locator<Key> keyLocator;
+
+    private JwtKeyManager(Algorithm algorithm, SecretKey secretKey, String signingKeyId, PrivateKey signingKey,
+                          Map<String, PublicKey> verificationKeys) {
+        this.algorithm = algorithm;
+        this.secretKey = secretKey;
+        this.signingKeyId = signingKeyId;
+        this.signingKey = signingKey;
+        this.signatureAlgorithm = signingKey == null ? null : signatureAlgorithm(algorithm);
+        this.verificationKeys = Map.copyOf(verificationKeys);
+        this.jwks = Map.of("keys", this.toJwks(verificationKeys));
+        this.keyLocator = new LocatorAdapter<>() {
+            @Override
+            protected Key locate(ProtectedHeader header) {
+                return JwtKeyManager.this.verificationKey(header.getKeyId());
+            }
+        };
+    }
+
+    public static JwtKeyManager hmac(byte[] secret) {
+        return new JwtKeyManager(Algorithm.HMAC, Keys.hmacShaKeyFor(secret), null, null, Map.of());
+    }
+
+    /**
+     * Loads every key entry of the keystore, the alias of an entry is its {@code kid}.
+     *
+     * @param activeKeyId alias of the key that signs new tokens
+     */
+    public static JwtKeyManager fromKeyStore(Algorithm algorithm, KeyStore keyStore, char[] password, String activeKeyId)
+            throws GeneralSecurityException {
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        PrivateKey activeKey = null;
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (!keyStore.isKeyEntry(alias)) {
+                continue;
+            }
+            Certificate certificate = keyStore.getCertificate(alias);
+            if (certificate == null) {
+                continue;
+            }
+            checkKeyType(algorithm, alias, certificate.getPublicKey());
+            publicKeys.put(alias, certificate.getPublicKey());
+            if (alias.equals(activeKeyId)) {
+                activeKey = (PrivateKey) keyStore.getKey(alias, password);
+            }
+        }
+        if (activeKey == null) {
+            throw new IllegalStateException("No private key with alias '" + activeKeyId + "' in the JWT keystore");
+        }
+        log.info("Loaded {} JWT verification keys, signing with kid {}", publicKeys.size(), activeKeyId);
+        return new JwtKeyManager(algorithm, null, activeKeyId, activeKey, publicKeys);
+    }
+
+    /**
+     * Generates a key pair that only lives as long as this process. Tokens it signed become invalid on restart
+     * and are not accepted by other replicas, so this is meant for local development.
+     */
+    public static JwtKeyManager generate(Algorithm algorithm) {
+        KeyPair keyPair = signatureAlgorithm(algorithm).keyPair().build();
+        String keyId = UUID.randomUUID().toString();
+        log.warn("No JWT keystore configured, signing with an ephemeral {} key (kid {})", algorithm, keyId);
+        return new JwtKeyManager(algorithm, null, keyId, keyPair.getPrivate(), Map.of(keyId, keyPair.getPublic()));
+    }
+
+    public Algorithm getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Signs the token with the active key and, for asymmetric keys, sets its {@code kid} header.
+     */
+    public JwtBuilder signWith(JwtBuilder builder) {
+        if (this.signingKey == null) {
+            return builder.signWith(this.secretKey);
+        }
+        return builder.header().keyId(this.signingKeyId).and().signWith(this.signingKey, this.signatureAlgorithm);
+    }
+
+    /**
+     * Resolves the verification key from the token header. Unknown or missing {@code kid}s resolve to
+     * {@code null}, which the parser rejects.
+     */
+    public Locator<Key> keyLocator() {
+        return this.keyLocator;
+    }
+
+    /**
+     * @return the public key set as a JWKS document, empty in HMAC mode since the secret is never published
+     */
+    public Map<String, Object> jwks() {
+        return this.jwks;
+    }
+
+    private Key verificationKey(String keyId) {
+        if (this.secretKey != null) {
+            return keyId == null ? this.secretKey : null;
+        }
+        return keyId == null ? null : this.verificationKeys.get(keyId);
+    }
+
+    private List<Map<String, ?>> toJwks(Map<String, PublicKey> publicKeys) {
+        List<Map<String, ?>> keys = new ArrayList<>(publicKeys.size());
+        publicKeys.forEach((keyId, publicKey) -> {
+            Jwk<?> jwk = Jwks.builder().key(publicKey)
+                    .id(keyId)
+                    .algorithm(this.algorithm.name())
+                    .publicKeyUse("sig")
+                    .build();
+            keys.add(Map.copyOf(jwk));
+        });
+        return List.copyOf(keys);
+    }
+
+    private static SignatureAlgorithm signatureAlgorithm(Algorithm algorithm) {
+        return switch (algorithm) {
+            case RS256 -> Jwts.SIG.RS256;
+            case EdDSA -> Jwts.SIG.EdDSA;
+            case HMAC -> throw new IllegalArgumentException("HMAC is not an asymmetric algorithm");
+        };
+    }
+
+    private static void checkKeyType(Algorithm algorithm, String alias, PublicKey publicKey) {
+        String keyAlgorithm = publicKey.getAlgorithm().toUpperCase(Locale.ROOT);
+        boolean matches = switch (algorithm) {
+            case RS256 -> keyAlgorithm.equals("RSA");
+            case EdDSA -> keyAlgorithm.equals("ED25519") || keyAlgorithm.equals("ED448") || keyAlgorithm.equals("EDDSA");
+            case HMAC -> false;
+        };
+        if (!matches) {
+            throw new IllegalStateException("JWT key '" + alias + "' is a " + publicKey.getAlgorithm() + " key, not usable with " + algorithm);
+        }
+    }
+}
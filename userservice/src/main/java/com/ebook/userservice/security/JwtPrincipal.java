@@ -0,0 +1,29 @@
+package com.ebook.userservice.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * Lightweight principal built straight from verified JWT claims.
+ * Carries no password, it only exists for the lifetime of a request.
+ */
+public record JwtPrincipal(Long id, String username, String email,
+                           Collection<? extends GrantedAuthority> authorities) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return this.authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return this.username;
+    }
+}
@@ -1,59 +1,188 @@
 package com.ebook.userservice.service;
 
 import com.ebook.userservice.entity.User;
+import com.ebook.userservice.security.JwtKeyManager;
+import com.ebook.userservice.security.JwtPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @Slf4j
 public class JwtService {
 
-    @Value("${com.ebook.user-service.auth.jwt.secret-key:404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970}")
-    private String jwtSecret;
+    private static final String ISSUER = "UserService";
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_USERNAME = "username";
+    private static final String CLAIM_AUTHORITIES = "authorities";
+    static final String CLAIM_SESSION_ID = "sid";
 
-    @Value("${com.ebook.user-service.auth.jwt.expiration:3600000}")
-    private int jwtExpirationMs;
+    private final JwtKeyManager keyManager;
+    private final JwtParser jwtParser;
+    private final int jwtExpirationMs;
+
+    /**
+     * Recently verified tokens and their claims. Entries expire together with the token itself,
+     * so a cache hit never returns claims for a token that is no longer valid.
+     */
+    private final Cache<String, Claims> verifiedTokens;
+
+    public JwtService(JwtKeyManager keyManager,
+                      @Value("${com.ebook.user-service.auth.jwt.expiration:900000}") int jwtExpirationMs,
+                      @Value("${com.ebook.user-service.auth.jwt.cache.max-size:10000}") long cacheMaxSize) {
+        this.keyManager = keyManager;
+        this.jwtParser = Jwts.parser().keyLocator(keyManager.keyLocator()).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(Expiry.creating((String token, Claims claims) -> this.timeToExpiry(claims)))
+                .build();
+    }
 
     public String generateJwtToken(Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-        return Jwts.builder()
-                .issuer("UserService")
+        return this.generateJwtToken((User) authentication.getPrincipal());
+    }
+
+    public String generateJwtToken(User user) {
+        return this.generateJwtToken(user, null);
+    }
+
+    /**
+     * @param sessionId refresh token family the token was issued with, stored as the {@code sid} claim
+     */
+    public String generateJwtToken(User user, String sessionId) {
+        Date now = new Date();
+        return this.keyManager.signWith(Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .claim(CLAIM_SESSION_ID, sessionId)
+                .issuer(ISSUER)
                 .subject(user.getEmail())
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + this.jwtExpirationMs))
-                .signWith(Keys.hmacShaKeyFor(this.jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .claim(CLAIM_USER_ID, user.getId())
+                .claim(CLAIM_USERNAME, user.getUsername())
+                .claim(CLAIM_AUTHORITIES, user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + this.jwtExpirationMs)))
                 .compact();
     }
 
+    /**
+     * @return lifetime of newly issued tokens
+     */
+    public Duration getExpiration() {
+        return Duration.ofMillis(this.jwtExpirationMs);
+    }
+
+    /**
+     * Verifies the token and returns its claims. The signature is checked only the first time
+     * a token is seen, later calls with the same token are answered from the cache until it expires.
+     *
+     * @param token compact JWT without the "Bearer " prefix
+     * @return verified claims, or empty if the token is invalid or expired
+     */
+    public Optional<Claims> verifyJwtToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        Claims claims = this.verifiedTokens.getIfPresent(token);
+        if (claims == null) {
+            claims = this.parseClaims(token);
+            if (claims == null) {
+                return Optional.empty();
+            }
+            this.verifiedTokens.put(token, claims);
+        }
+        return Optional.of(claims);
+    }
+
+    /**
+     * Same as {@link #verifyJwtToken(String)} but always checks the signature and leaves the cache untouched.
+     */
+    public Optional<Claims> parseJwtToken(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(this.parseClaims(token));
+    }
+
+    /**
+     * Builds a principal from verified claims without touching the database.
+     *
+     * @param claims claims returned by {@link #verifyJwtToken(String)}
+     * @return the principal, or empty if the token predates the identity claims
+     */
+    public Optional<JwtPrincipal> getPrincipal(Claims claims) {
+        Number userId = claims.get(CLAIM_USER_ID, Number.class);
+        if (userId == null) {
+            return Optional.empty();
+        }
+        List<?> authorities = claims.get(CLAIM_AUTHORITIES, List.class);
+        List<GrantedAuthority> grantedAuthorities = authorities == null ? List.of() : authorities.stream()
+                .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority.toString()))
+                .toList();
+        return Optional.of(new JwtPrincipal(userId.longValue(), claims.get(CLAIM_USERNAME, String.class),
+                claims.getSubject(), grantedAuthorities));
+    }
+
+    /**
+     * @return the refresh token family of the session the token belongs to, if it was issued with one
+     */
+    public Optional<String> getSessionId(Claims claims) {
+        return Optional.ofNullable(claims.get(CLAIM_SESSION_ID, String.class));
+    }
+
     public String getEmailFromJwtToken(String token) {
-        return Jwts.parser().verifyWith(Keys.hmacShaKeyFor(this.jwtSecret.getBytes(StandardCharsets.UTF_8))).build()
-                .parseSignedClaims(token).getPayload().getSubject();
+        return this.verifyJwtToken(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new MalformedJwtException("JWT token is not valid"));
     }
 
     public boolean validateJwtToken(String token) {
+        return this.verifyJwtToken(token).isPresent();
+    }
+
+    private Claims parseClaims(String token) {
         try {
-            Jwts.parser().verifyWith(Keys.hmacShaKeyFor(this.jwtSecret.getBytes(StandardCharsets.UTF_8))).build().parseSignedClaims(token);
-            return true;
+            return this.jwtParser.parseSignedClaims(token).getPayload();
         } catch (MalformedJwtException e) {
             log.error("Invalid JWT token: {}", e.getMessage());
         } catch (ExpiredJwtException e) {
             log.error("JWT token is expired: {}", e.getMessage());
         } catch (UnsupportedJwtException e) {
             log.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (SecurityException e) {
+            log.error("JWT signature is invalid: {}", e.getMessage());
         } catch (IllegalArgumentException e) {
             log.error("JWT claims string is empty: {}", e.getMessage());
         }
 
-        return false;
+        return null;
+    }
+
+    private Duration timeToExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return Duration.ofMillis(this.jwtExpirationMs);
+        }
+        long remaining = expiration.getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(remaining, 0));
     }
-}
\ No newline at end of file
+}
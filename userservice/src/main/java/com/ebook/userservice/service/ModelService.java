@@ -1,23 +1,67 @@
 package com.ebook.userservice.service;
 
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
+import com.ebook.userservice.mapper.TypeMapper;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 public class ModelService {
 
-    private final ModelMapper modelMapper;
+    private final Map<Class<?>, Map<Class<?>, TypeMapper<?, ?>>> registered = new HashMap<>();
+
+    /**
+     * Mappers by concrete source class, so subclasses such as Hibernate proxies resolve to the mapper of
+     * their entity type once and are a plain lookup afterwards.
+     */
+    private final ClassValue<Map<Class<?>, TypeMapper<?, ?>>> resolved = new ClassValue<>() {
+        @Override
+        protected Map<Class<?>, TypeMapper<?, ?>> computeValue(Class<?> sourceType) {
+            Map<Class<?>, TypeMapper<?, ?>> mappers = new HashMap<>();
+            for (Class<?> type = sourceType; type != null; type = type.getSuperclass()) {
+                registered.getOrDefault(type, Map.of()).forEach(mappers::putIfAbsent);
+            }
+            return Map.copyOf(mappers);
+        }
+    };
+
+    public ModelService(List<TypeMapper<?, ?>> mappers) {
+        for (TypeMapper<?, ?> mapper : mappers) {
+            this.registered.computeIfAbsent(mapper.sourceType(), type -> new HashMap<>()).put(mapper.destinationType(), mapper);
+        }
+    }
 
     public <S,D> D map(S source, Class<D> destination){
-        return this.modelMapper.map(source, destination);
+        if (source == null) {
+            return null;
+        }
+        return this.mapper(source, destination).map(source);
     }
 
     public <S,D> List<D> map(List<S> source, Class<D> destination){
-        return source.stream().map(s -> this.map(s, destination)).toList();
+        List<D> result = new ArrayList<>(source.size());
+        TypeMapper<S, D> mapper = null;
+        Class<?> mapperSourceType = null;
+        for (S s : source) {
+            if (s.getClass() != mapperSourceType) {
+                mapper = this.mapper(s, destination);
+                mapperSourceType = s.getClass();
+            }
+            result.add(mapper.map(s));
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <S, D> TypeMapper<S, D> mapper(S source, Class<D> destination) {
+        TypeMapper<?, ?> mapper = this.resolved.get(source.getClass()).get(destination);
+        if (mapper == null) {
+            throw new IllegalArgumentException("No mapper registered from " + source.getClass().getName() + " to " + destination.getName());
+        }
+        return (TypeMapper<S, D>) mapper;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.config.ReadWriteRoutingDataSource;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes on top of the replica routing. Records written on this instance stay pinned to the primary
+ * for {@code stickiness}, which has to cover the replication lag, so a user who just signed up can log in and
+ * read their profile straight away. Pinning is per record, not per client. Does nothing without a replica.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWrites;
+    private final Counter stickyReads;
+
+    public ReadYourWritesTracker(@Value("${com.ebook.user-service.datasource.replica.url:}") String replicaUrl,
+                                 @Value("${com.ebook.user-service.datasource.replica.stickiness:5s}") Duration stickiness,
+                                 @Value("${com.ebook.user-service.datasource.replica.stickiness-max-keys:100000}") long maxKeys,
+                                 MeterRegistry meterRegistry) {
+        this.recentWrites = !StringUtils.hasText(replicaUrl) ? null : Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(stickiness)
+                .build();
+        this.stickyReads = Counter.builder("userservice.datasource.sticky.reads").register(meterRegistry);
+    }
+
+    public void recordWrite(String key) {
+        if (this.recentWrites != null && key != null) {
+            this.recentWrites.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Runs the read on the primary if {@code key} was written recently, otherwise leaves it to the routing.
+     */
+    public <T> T read(String key, Supplier<T> query) {
+        if (this.recentWrites == null || key == null || this.recentWrites.getIfPresent(key) == null) {
+            return query.get();
+        }
+        this.stickyReads.increment();
+        return ReadWriteRoutingDataSource.onPrimary(query);
+    }
+
+    public static String idKey(Long id) {
+        return "id:" + id;
+    }
+
+    public static String emailKey(String emailNormalized) {
+        return "email:" + emailNormalized;
+    }
+}
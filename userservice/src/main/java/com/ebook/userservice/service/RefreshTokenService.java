@@ -0,0 +1,120 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.config.ReadWriteRoutingDataSource;
+import com.ebook.userservice.entity.RefreshToken;
+import com.ebook.userservice.exception.InvalidTokenException;
+import com.ebook.userservice.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque, rotating refresh tokens. A token is 256 random bits, so it is looked up by its plain SHA-256 hash
+ * without the cost of a password hash. Each exchange returns a new token of the same family and marks the old
+ * one as rotated. Presenting a rotated token again means it was copied, so the whole family is revoked, together
+ * with the access tokens issued to it.
+ */
+@Service
+@Slf4j
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final TokenDenylist tokenDenylist;
+    private final JwtService jwtService;
+    private final Duration ttl;
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Counter reuseDetected;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, TokenDenylist tokenDenylist, JwtService jwtService,
+                               @Value("${com.ebook.user-service.auth.refresh-token.ttl:30d}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.tokenDenylist = tokenDenylist;
+        this.jwtService = jwtService;
+        this.ttl = ttl;
+        this.reuseDetected = Counter.builder("userservice.refresh.reuse").register(meterRegistry);
+    }
+
+    public record IssuedRefreshToken(String value, String familyId, Long userId) {
+    }
+
+    /**
+     * Starts a new family, called on login.
+     */
+    public IssuedRefreshToken issue(Long userId) {
+        return this.issue(userId, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchanges a refresh token for its successor.
+     *
+     * @throws InvalidTokenException if the token is unknown, expired or has already been rotated
+     */
+    public IssuedRefreshToken rotate(String value) {
+        String tokenHash = hash(value);
+        Instant now = Instant.now();
+        // A token issued moments ago may not have reached the replica yet
+        RefreshToken refreshToken = ReadWriteRoutingDataSource.onPrimary(() -> this.refreshTokenRepository.findById(tokenHash))
+                .filter(token -> token.getExpiresAt().isAfter(now))
+                .orElseThrow(() -> new InvalidTokenException("Refresh token is not valid"));
+
+        if (this.refreshTokenRepository.markRotated(tokenHash, now) == 0) {
+            this.revokeFamily(refreshToken.getFamilyId());
+            this.reuseDetected.increment();
+            log.warn("Rotated refresh token of user {} was presented again, revoked its family {} and its access tokens",
+                    refreshToken.getUserId(), refreshToken.getFamilyId());
+            throw new InvalidTokenException("Refresh token is not valid");
+        }
+        return this.issue(refreshToken.getUserId(), refreshToken.getFamilyId());
+    }
+
+    /**
+     * Deletes the refresh tokens of the family and revokes the access tokens issued to it, which carry the family
+     * as {@code sid}. Those issued before now expire within one access token lifetime.
+     */
+    public void revokeFamily(String familyId) {
+        this.refreshTokenRepository.deleteFamily(familyId);
+        this.tokenDenylist.revokeSession(familyId, Instant.now().plus(this.jwtService.getExpiration()));
+    }
+
+    @Scheduled(fixedDelayString = "${com.ebook.user-service.auth.refresh-token.purge-interval:1h}",
+            initialDelayString = "${com.ebook.user-service.auth.refresh-token.purge-interval:1h}")
+    public void purgeExpired() {
+        int deleted = this.refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired refresh tokens", deleted);
+        }
+    }
+
+    private IssuedRefreshToken issue(Long userId, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        this.secureRandom.nextBytes(bytes);
+        String value = ENCODER.encodeToString(bytes);
+        Instant now = Instant.now();
+        this.refreshTokenRepository.save(new RefreshToken(hash(value), familyId, userId, now, now.plus(this.ttl), null));
+        return new IssuedRefreshToken(value, familyId, userId);
+    }
+
+    private static String hash(String value) {
+        try {
+            return ENCODER.encodeToString(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.entity.RevokedToken;
+import com.ebook.userservice.repository.RevokedTokenRepository;
+import com.ebook.userservice.security.BloomFilter;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token ids ({@code jti}) revoked before their expiry. Checked on every authenticated request, so the check
+ * stays in memory: a Bloom filter answers "not revoked" for almost every token and only its positives are
+ * confirmed against the exact map. Revocations are written to REVOKED_TOKENS, loaded at startup and picked up
+ * from there by the other replicas every {@code refresh-interval}. Entries are dropped once the token expires.
+ */
+@Component
+@Slf4j
+public class TokenDenylist {
+
+    private static final String METRIC_PREFIX = "userservice.denylist.";
+    /**
+     * Prefix of the entries that revoke a whole session, keyed by its {@code sid}. A jti is a UUID and never has it.
+     */
+    private static final String SESSION_PREFIX = "sid:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long expectedEntries;
+    private final double falsePositiveRate;
+    private final Duration refreshInterval;
+    private final Counter rejected;
+
+    /**
+     * jti to token expiry in epoch millis.
+     */
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter;
+    /**
+     * Entries the current filter is sized for. Guarded by this.
+     */
+    private long capacity;
+    private Instant lastRefresh;
+
+    public TokenDenylist(RevokedTokenRepository revokedTokenRepository,
+                         @Value("${com.ebook.user-service.auth.denylist.expected-entries:100000}") long expectedEntries,
+                         @Value("${com.ebook.user-service.auth.denylist.false-positive-rate:0.01}") double falsePositiveRate,
+                         @Value("${com.ebook.user-service.auth.denylist.refresh-interval:30s}") Duration refreshInterval,
+                         MeterRegistry meterRegistry) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshInterval = refreshInterval;
+        this.capacity = expectedEntries;
+        this.filter = new BloomFilter(expectedEntries, falsePositiveRate);
+        this.rejected = Counter.builder(METRIC_PREFIX + "rejected").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "size", this.revoked, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        Instant now = Instant.now();
+        this.revokedTokenRepository.findByExpiresAtAfter(now).forEach(this::add);
+        this.lastRefresh = now;
+        log.info("Loaded {} revoked tokens", this.revoked.size());
+    }
+
+    /**
+     * @return true if the token carries a revoked {@code jti} or belongs to a revoked session. Tokens without
+     * either cannot be revoked.
+     */
+    public boolean isRevoked(Claims claims) {
+        String sessionId = claims.get(JwtService.CLAIM_SESSION_ID, String.class);
+        if (!this.contains(claims.getId()) && (sessionId == null || !this.contains(SESSION_PREFIX + sessionId))) {
+            return false;
+        }
+        this.rejected.increment();
+        return true;
+    }
+
+    private boolean contains(String key) {
+        return key != null && this.filter.mightContain(key) && this.revoked.containsKey(key);
+    }
+
+    /**
+     * Revokes every access token issued with the {@code sid} until {@code expiresAt}, which has to cover the
+     * lifetime of the last token issued to the session.
+     */
+    public void revokeSession(String sessionId, Instant expiresAt) {
+        this.revoke(SESSION_PREFIX + sessionId, expiresAt);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        RevokedToken revokedToken = new RevokedToken(jti, expiresAt, Instant.now());
+        this.revokedTokenRepository.save(revokedToken);
+        this.add(revokedToken);
+    }
+
+    /**
+     * Picks up revocations made by other replicas and drops expired entries, from memory and from the table.
+     */
+    @Scheduled(fixedDelayString = "${com.ebook.user-service.auth.denylist.refresh-interval:30s}",
+            initialDelayString = "${com.ebook.user-service.auth.denylist.refresh-interval:30s}")
+    public void refresh() {
+        Instant now = Instant.now();
+        // Overlap with the previous window so clock skew between replicas cannot hide a revocation
+        Instant since = this.lastRefresh.minus(this.refreshInterval);
+        this.revokedTokenRepository.findByRevokedAtGreaterThanEqualAndExpiresAtAfter(since, now).forEach(this::add);
+        this.lastRefresh = now;
+
+        long nowMillis = now.toEpochMilli();
+        if (this.revoked.values().removeIf(expiresAt -> expiresAt <= nowMillis)) {
+            this.rebuild();
+        }
+        int deleted = this.revokedTokenRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.debug("Deleted {} expired revoked tokens", deleted);
+        }
+    }
+
+    private synchronized void add(RevokedToken revokedToken) {
+        if (this.revoked.put(revokedToken.getJti(), revokedToken.getExpiresAt().toEpochMilli()) == null
+                && this.revoked.size() > this.capacity) {
+            // Past its sizing the false positive rate climbs quickly, grow instead
+            this.rebuild();
+        } else {
+            this.filter.put(revokedToken.getJti());
+        }
+    }
+
+    /**
+     * Replaces the filter with one holding only the current entries, since values cannot be removed from a
+     * Bloom filter. Sized for twice the current entries, so growing costs amortized O(1) per revocation.
+     * Synchronized with {@link #add(RevokedToken)} so no revocation is missed by the new filter.
+     */
+    private synchronized void rebuild() {
+        long rebuiltCapacity = Math.max(this.expectedEntries, this.revoked.size() * 2L);
+        BloomFilter rebuilt = new BloomFilter(rebuiltCapacity, this.falsePositiveRate);
+        this.revoked.keySet().forEach(rebuilt::put);
+        this.capacity = rebuiltCapacity;
+        this.filter = rebuilt;
+    }
+}
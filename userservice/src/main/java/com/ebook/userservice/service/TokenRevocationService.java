@@ -0,0 +1,52 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.dto.TokenRevocationDTO;
+import com.ebook.userservice.exception.InvalidTokenException;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Instant;
+
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final JwtService jwtService;
+    private final TokenDenylist tokenDenylist;
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * Revokes the token the current request was authenticated with, and the refresh tokens of its session.
+     */
+    public void logout(String token) {
+        Claims claims = this.jwtService.verifyJwtToken(token)
+                .orElseThrow(() -> new InvalidTokenException("JWT token is not valid"));
+        this.revoke(claims);
+        this.jwtService.getSessionId(claims).ifPresent(this.refreshTokenService::revokeFamily);
+    }
+
+    /**
+     * Revokes a token, or a bare {@code jti}. A bare jti has no known expiry, so it is kept for the
+     * longest lifetime a token can have.
+     */
+    public void revoke(TokenRevocationDTO request) {
+        if (StringUtils.hasText(request.getToken())) {
+            Claims claims = this.jwtService.parseJwtToken(request.getToken())
+                    .orElseThrow(() -> new InvalidTokenException("JWT token is not valid"));
+            this.revoke(claims);
+        } else if (StringUtils.hasText(request.getJti())) {
+            this.tokenDenylist.revoke(request.getJti(), Instant.now().plus(this.jwtService.getExpiration()));
+        } else {
+            throw new InvalidTokenException("Either token or jti is required");
+        }
+    }
+
+    private void revoke(Claims claims) {
+        if (claims.getId() == null) {
+            throw new InvalidTokenException("JWT token has no jti and cannot be revoked");
+        }
+        this.tokenDenylist.revoke(claims.getId(), claims.getExpiration().toInstant());
+    }
+}
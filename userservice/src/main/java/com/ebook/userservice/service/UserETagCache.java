@@ -0,0 +1,49 @@
+package com.ebook.userservice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Current ETag of each recently served user, keyed by id. Lets a conditional GET be answered with 304
+ * without loading the entity. Entries are replaced whenever the user is loaded or written through
+ * {@link UserService}, the TTL bounds how long a change made elsewhere can go unnoticed.
+ */
+@Component
+public class UserETagCache {
+
+    private static final String CACHE_NAME = "userETags";
+
+    private final Cache<Long, String> eTags;
+
+    public UserETagCache(@Value("${com.ebook.user-service.etag-cache.max-size:100000}") long maxSize,
+                         @Value("${com.ebook.user-service.etag-cache.ttl:5m}") Duration ttl,
+                         MeterRegistry meterRegistry) {
+        this.eTags = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.eTags, CACHE_NAME);
+    }
+
+    /**
+     * @return the quoted ETag, or {@code null} if the user is not cached
+     */
+    public String get(Long id) {
+        return this.eTags.getIfPresent(id);
+    }
+
+    public void put(Long id, String eTag) {
+        this.eTags.put(id, eTag);
+    }
+
+    public void invalidate(Long id) {
+        this.eTags.invalidate(id);
+    }
+}
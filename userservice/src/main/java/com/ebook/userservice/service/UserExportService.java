@@ -0,0 +1,166 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes every user as NDJSON or CSV in id order. Rows come from a database cursor and are mapped and written
+ * as they arrive; the persistence context is cleared after each fetch, so heap use does not grow with the
+ * number of users. The first row is flushed on its own so the client sees data immediately.
+ */
+@Service
+public class UserExportService {
+
+    private final UserRepository userRepository;
+    private final ModelService modelService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter ndjsonWriter;
+
+    public UserExportService(UserRepository userRepository, ModelService modelService, EntityManager entityManager,
+                             PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.modelService = modelService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Read-only, so a configured replica serves the export
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.ndjsonWriter = objectMapper.writerFor(UserDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+    }
+
+    /**
+     * @return number of users written
+     */
+    public long exportUsers(OutputStream out, UserImportService.Format format) throws IOException {
+        try {
+            return this.transactionTemplate.execute(status -> {
+                try (RowWriter rowWriter = format == UserImportService.Format.CSV ? new CsvRowWriter(out) : new NdjsonRowWriter(out);
+                     Stream<User> users = this.userRepository.streamAllOrderById()) {
+                    long rows = 0;
+                    Iterator<User> iterator = users.iterator();
+                    while (iterator.hasNext()) {
+                        rowWriter.write(this.modelService.map(iterator.next(), UserDTO.class));
+                        if (++rows == 1 || rows % UserRepository.STREAM_FETCH_SIZE == 0) {
+                            rowWriter.flush();
+                            this.entityManager.clear();
+                        }
+                    }
+                    return rows;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Usually the client went away, the cursor is closed and the read-only transaction ends
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Closing finishes the output without closing the underlying stream.
+     */
+    private interface RowWriter extends AutoCloseable {
+        void write(UserDTO user) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private boolean empty = true;
+
+        private NdjsonRowWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void write(UserDTO user) throws IOException {
+            ndjsonWriter.writeValue(this.generator, user);
+            this.empty = false;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!this.empty) {
+                this.generator.writeRaw('\n');
+            }
+            this.generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 rows with an {@code id,username,email} header. Fields holding a comma, quote or line break are quoted.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.writer.write("id,username,email\r\n");
+        }
+
+        @Override
+        public void write(UserDTO user) throws IOException {
+            this.writer.write(String.valueOf(user.getId()));
+            this.writer.write(',');
+            this.writeField(user.getUsername());
+            this.writer.write(',');
+            this.writeField(user.getEmail());
+            this.writer.write("\r\n");
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                this.writer.write(value);
+                return;
+            }
+            this.writer.write('"');
+            this.writer.write(value.replace("\"", "\"\""));
+            this.writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.writer.flush();
+        }
+    }
+}
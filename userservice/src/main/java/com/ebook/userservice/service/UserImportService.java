@@ -0,0 +1,294 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.dto.UserImportFailureDTO;
+import com.ebook.userservice.dto.UserImportReportDTO;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.exception.InvalidRequestException;
+import com.ebook.userservice.outbox.OutboxService;
+import com.ebook.userservice.repository.UserRepository;
+import com.ebook.userservice.security.BoundedPasswordEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import of users from a streamed NDJSON or CSV body. Rows are read one at a time and written in
+ * chunks: each chunk checks for existing emails with one query, hashes its passwords in parallel and
+ * is inserted in its own transaction with JDBC batching. A bad row is reported and skipped, it never
+ * aborts the import.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON_VALUE, "ndjson"),
+        CSV(TEXT_CSV_VALUE, "csv");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return this.mediaType;
+        }
+
+        public String extension() {
+            return this.extension;
+        }
+
+        /**
+         * @throws InvalidRequestException if {@code extension} is neither ndjson nor csv, ignoring case
+         */
+        public static Format fromExtension(String extension) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(extension)) {
+                    return format;
+                }
+            }
+            throw new InvalidRequestException("Unknown format " + extension + ", expected ndjson or csv");
+        }
+
+        public static Format fromContentType(String contentType) {
+            return contentType != null && MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))
+                    ? CSV : NDJSON;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final ModelService modelService;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
+    private final OutboxService outboxService;
+    private final UserSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxReportedFailures;
+
+    public UserImportService(UserRepository userRepository, ModelService modelService, BoundedPasswordEncoder passwordEncoder,
+                             UserPrincipalCache principalCache, OutboxService outboxService, UserSearchIndex searchIndex,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper, Validator validator,
+                             @Value("${com.ebook.user-service.import.chunk-size:500}") int chunkSize,
+                             @Value("${com.ebook.user-service.import.max-reported-failures:1000}") int maxReportedFailures) {
+        this.userRepository = userRepository;
+        this.modelService = modelService;
+        this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.outboxService = outboxService;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxReportedFailures = maxReportedFailures;
+    }
+
+    public UserImportReportDTO importUsers(InputStream body, Format format) throws IOException {
+        ImportReport report = new ImportReport(this.maxReportedFailures);
+        RowParser parser = format == Format.CSV ? new CsvRowParser() : line -> this.objectMapper.readValue(line, UserDTO.class);
+        List<ImportRow> chunk = new ArrayList<>(this.chunkSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                UserDTO userDTO;
+                try {
+                    userDTO = parser.parse(line);
+                } catch (Exception e) {
+                    report.fail(rowNumber, null, "Unreadable row: " + e.getMessage());
+                    continue;
+                }
+                if (userDTO == null) {
+                    continue;
+                }
+                chunk.add(new ImportRow(rowNumber, userDTO));
+                if (chunk.size() >= this.chunkSize) {
+                    this.importChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.importChunk(chunk, report);
+        }
+
+        log.info("User import finished: {} imported, {} failed", report.imported, report.failed);
+        return report.toDTO();
+    }
+
+    private void importChunk(List<ImportRow> chunk, ImportReport report) {
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        for (ImportRow row : chunk) {
+            Set<ConstraintViolation<UserDTO>> violations = this.validator.validate(row.user());
+            if (!violations.isEmpty()) {
+                report.fail(row, violations.stream()
+                        .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            } else if (!emails.add(User.normalizeEmail(row.user().getEmail()))) {
+                report.fail(row, "Duplicate email in import");
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        Set<String> existingEmails = this.userRepository.findExistingNormalizedEmails(emails);
+        List<ImportRow> rows = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            if (existingEmails.contains(User.normalizeEmail(row.user().getEmail()))) {
+                report.fail(row, "User already exist!");
+            } else {
+                rows.add(row);
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = this.passwordEncoder.encodeAll(rows.stream().map(row -> row.user().getPassword()).toList());
+        List<User> users = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            User user = this.modelService.map(rows.get(i).user(), User.class);
+            user.setPassword(hashes.get(i));
+            users.add(user);
+        }
+
+        try {
+            this.transactionTemplate.executeWithoutResult(status -> this.outboxService.userCreated(this.userRepository.saveAll(users)));
+            report.imported += users.size();
+            this.searchIndex.addAll(users);
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} users failed, retrying row by row: {}", users.size(), e.getMessage());
+            this.importOneByOne(rows, users, report);
+        }
+        users.forEach(user -> this.principalCache.invalidate(user.getEmailNormalized()));
+    }
+
+    private void importOneByOne(List<ImportRow> rows, List<User> users, ImportReport report) {
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            // The failed batch may already have assigned an id and version, the insert has to start from a transient entity
+            user.setId(null);
+            user.setVersion(null);
+            try {
+                this.transactionTemplate.executeWithoutResult(status -> this.outboxService.userCreated(List.of(this.userRepository.save(user))));
+                report.imported++;
+                this.searchIndex.addAll(List.of(user));
+            } catch (DataAccessException e) {
+                report.fail(rows.get(i), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            }
+        }
+    }
+
+    private record ImportRow(long row, UserDTO user) {
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        /**
+         * @return the parsed row, or {@code null} if the line is not a data row
+         */
+        UserDTO parse(String line) throws IOException;
+    }
+
+    /**
+     * Plain comma separated rows. The header line is optional and may reorder the
+     * username, email and password columns. Only the last column may contain commas.
+     */
+    private static final class CsvRowParser implements RowParser {
+        private static final String USERNAME = "username";
+        private static final String EMAIL = "email";
+        private static final String PASSWORD = "password";
+
+        private List<String> columns = List.of(USERNAME, EMAIL, PASSWORD);
+        private boolean firstLine = true;
+
+        @Override
+        public UserDTO parse(String line) {
+            String[] values = line.split(",", this.columns.size());
+            if (this.firstLine) {
+                this.firstLine = false;
+                List<String> header = List.of(values).stream().map(v -> v.trim().toLowerCase(Locale.ROOT)).toList();
+                if (header.size() == 3 && header.containsAll(this.columns)) {
+                    this.columns = header;
+                    return null;
+                }
+            }
+            if (values.length != this.columns.size()) {
+                throw new IllegalArgumentException("expected " + this.columns.size() + " columns but found " + values.length);
+            }
+
+            UserDTO userDTO = new UserDTO();
+            userDTO.setUsername(values[this.columns.indexOf(USERNAME)].trim());
+            userDTO.setEmail(values[this.columns.indexOf(EMAIL)].trim());
+            userDTO.setPassword(values[this.columns.indexOf(PASSWORD)]);
+            return userDTO;
+        }
+    }
+
+    private static final class ImportReport {
+        private final int maxReportedFailures;
+        private final List<UserImportFailureDTO> failures = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private ImportReport(int maxReportedFailures) {
+            this.maxReportedFailures = maxReportedFailures;
+        }
+
+        private void fail(ImportRow row, String reason) {
+            this.fail(row.row(), row.user().getEmail(), reason);
+        }
+
+        private void fail(long row, String email, String reason) {
+            this.failed++;
+            if (this.failures.size() < this.maxReportedFailures) {
+                this.failures.add(new UserImportFailureDTO(row, email, reason));
+            }
+        }
+
+        private UserImportReportDTO toDTO() {
+            return new UserImportReportDTO(this.imported + this.failed, this.imported, this.failed,
+                    this.failures, this.failed > this.failures.size());
+        }
+    }
+}
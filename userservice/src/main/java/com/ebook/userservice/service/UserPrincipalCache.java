@@ -0,0 +1,59 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of loaded principals keyed by email. Sits in front of
+ * {@link UserService#loadUserByUsername(String)} so authenticated requests do not
+ * hit the USERS table every time. Hit, miss and eviction counts are published
+ * as {@code cache.*} metrics with {@code cache=userPrincipals}.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private static final String CACHE_NAME = "userPrincipals";
+
+    private final Cache<String, User> principals;
+
+    public UserPrincipalCache(@Value("${com.ebook.user-service.auth.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${com.ebook.user-service.auth.principal-cache.ttl:10m}") Duration ttl,
+                              MeterRegistry meterRegistry) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.principals, CACHE_NAME);
+    }
+
+    /**
+     * Returns the cached principal or loads it. A loader returning {@code null} is not cached.
+     */
+    public User get(String email, Function<String, User> loader) {
+        return this.principals.get(email, loader);
+    }
+
+    public void invalidate(String email) {
+        if (email != null) {
+            this.principals.invalidate(email);
+        }
+    }
+
+    public void invalidateAll() {
+        this.principals.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return this.principals.stats();
+    }
+}
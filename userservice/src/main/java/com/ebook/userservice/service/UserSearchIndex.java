@@ -0,0 +1,362 @@
+package com.ebook.userservice.service;
+
+import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.entity.User;
+import com.ebook.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over lower-cased usernames and normalized emails, for typeahead. A prefix lookup is a
+ * binary search plus a short forward scan and never touches the database. Lookups take no lock.
+ * <p>
+ * The index is rebuilt from a cursor over USERS before the instance reports ready and then every
+ * {@code rebuild-interval}, which picks up users created on other replicas. Rebuilds run on their own thread, since
+ * one takes seconds with millions of users and would hold up every {@code @Scheduled} job. A build produces two arrays of the
+ * same users, sorted by username and by email: two references per user on top of the user itself, so millions
+ * of users fit. Users created here in between go to a small sorted map that is searched alongside the arrays.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class UserSearchIndex implements ApplicationRunner {
+
+    private static final String METRIC_PREFIX = "userservice.search.";
+    /**
+     * Ends the term within a key of the added map, it sorts before every character of a term.
+     */
+    private static final char SEPARATOR = '\0';
+    /**
+     * Heap estimates with compressed references: an {@link IndexedUser} plus its two array slots, a String
+     * without its byte[], and an entry of the added map.
+     */
+    private static final long USER_BYTES = 48;
+    private static final long STRING_BYTES = 24;
+    private static final long ADDED_ENTRY_BYTES = 32;
+
+    /**
+     * A user as indexed. The keys are the same instances as the username and email when those are lower case already.
+     */
+    public record IndexedUser(long id, String username, String email, String usernameKey, String emailKey) {
+
+        static IndexedUser of(User user) {
+            String username = user.getUsername() == null ? "" : user.getUsername();
+            String email = user.getEmail() == null ? "" : user.getEmail();
+            return new IndexedUser(user.getId(), username, email, normalize(username), normalize(email));
+        }
+
+        private long estimatedBytes() {
+            long bytes = USER_BYTES + stringBytes(this.username) + stringBytes(this.email);
+            if (this.usernameKey != this.username) {
+                bytes += stringBytes(this.usernameKey);
+            }
+            if (this.emailKey != this.email) {
+                bytes += stringBytes(this.emailKey);
+            }
+            return bytes;
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final ModelService modelService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int scanLimit;
+    private final int maxResults;
+    private final Duration rebuildInterval;
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "user-search-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer searchTimer;
+    private final AtomicLong lastBuildNanos = new AtomicLong();
+
+    private volatile Snapshot snapshot = Snapshot.build(new ArrayList<>());
+    /**
+     * Users added since the snapshot was read, keyed by term and id. Replaced when a rebuilt snapshot is published.
+     */
+    private volatile Added added = new Added();
+    /**
+     * Users added while a rebuild runs, those the new snapshot does not contain become its added map. Guarded by this.
+     */
+    private Added addedDuringRebuild;
+
+    public UserSearchIndex(UserRepository userRepository, ModelService modelService, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${com.ebook.user-service.search.scan-limit:200}") int scanLimit,
+                           @Value("${com.ebook.user-service.search.max-results:50}") int maxResults,
+                           @Value("${com.ebook.user-service.search.rebuild-interval:15m}") Duration rebuildInterval,
+                           MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.modelService = modelService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.scanLimit = scanLimit;
+        this.maxResults = maxResults;
+        this.rebuildInterval = rebuildInterval;
+        this.searchTimer = Timer.builder(METRIC_PREFIX + "query").register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "index.users", this, UserSearchIndex::size).register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "index.size", this, UserSearchIndex::estimatedBytes)
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        TimeGauge.builder(METRIC_PREFIX + "index.build", this.lastBuildNanos, TimeUnit.NANOSECONDS, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        this.rebuild();
+        long intervalMillis = this.rebuildInterval.toMillis();
+        this.rebuildExecutor.scheduleWithFixedDelay(this::scheduledRebuild, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * A failed rebuild keeps the previous index, and has to be caught or the executor stops scheduling.
+     */
+    private void scheduledRebuild() {
+        try {
+            this.rebuild();
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild failed, the previous index stays in use", e);
+        }
+    }
+
+    public void rebuild() {
+        long start = System.nanoTime();
+        synchronized (this) {
+            this.addedDuringRebuild = new Added();
+        }
+        Snapshot rebuilt;
+        try {
+            rebuilt = this.transactionTemplate.execute(status -> {
+                List<IndexedUser> users = new ArrayList<>();
+                try (Stream<User> stream = this.userRepository.streamAllOrderById()) {
+                    Iterator<User> iterator = stream.iterator();
+                    while (iterator.hasNext()) {
+                        users.add(IndexedUser.of(iterator.next()));
+                        if (users.size() % UserRepository.STREAM_FETCH_SIZE == 0) {
+                            this.entityManager.clear();
+                        }
+                    }
+                }
+                return Snapshot.build(users);
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                this.addedDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            // Users committed while the cursor was open may be in the snapshot already, keep each user in one place
+            Added remaining = new Added();
+            for (IndexedUser user : this.addedDuringRebuild.keys.values()) {
+                if (!rebuilt.contains(user)) {
+                    remaining.add(user);
+                }
+            }
+            this.snapshot = rebuilt;
+            this.added = remaining;
+            this.addedDuringRebuild = null;
+        }
+        long elapsed = System.nanoTime() - start;
+        this.lastBuildNanos.set(elapsed);
+        log.info("Search index built with {} users, about {} KiB, in {} ms", rebuilt.byUsername.length,
+                rebuilt.estimatedBytes / 1024, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Adds committed users. Serialized with the publication of a rebuilt snapshot so none is lost.
+     */
+    public synchronized void addAll(Collection<User> users) {
+        for (User user : users) {
+            IndexedUser indexedUser = IndexedUser.of(user);
+            this.added.add(indexedUser);
+            if (this.addedDuringRebuild != null) {
+                this.addedDuringRebuild.add(indexedUser);
+            }
+        }
+    }
+
+    /**
+     * Users with a username or email starting with {@code query}, ignoring case. Up to {@code scan-limit} matches
+     * per field are ranked by the length of the matched term, so an exact match comes first and shorter
+     * completions before longer ones, then by id.
+     *
+     * @param limit number of results, clamped to 1..{@code max-results}
+     */
+    public List<UserDTO> search(String query, int limit) {
+        String prefix = normalize(query == null ? "" : query.trim());
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        int resultLimit = Math.clamp(limit, 1, this.maxResults);
+        return this.searchTimer.record(() -> {
+            Snapshot current = this.snapshot;
+            Map<Long, Match> matches = new HashMap<>();
+            this.scan(current.byUsername, IndexedUser::usernameKey, prefix, matches);
+            this.scan(current.byEmail, IndexedUser::emailKey, prefix, matches);
+            int scanned = 0;
+            for (Map.Entry<String, IndexedUser> entry : this.added.keys.tailMap(prefix).entrySet()) {
+                String key = entry.getKey();
+                if (!key.startsWith(prefix) || scanned++ == this.scanLimit) {
+                    break;
+                }
+                merge(matches, new Match(entry.getValue(), key.lastIndexOf(SEPARATOR)));
+            }
+            List<IndexedUser> ranked = matches.values().stream()
+                    .sorted(Comparator.comparingInt(Match::termLength).thenComparingLong(match -> match.user().id()))
+                    .limit(resultLimit)
+                    .map(Match::user)
+                    .toList();
+            return this.modelService.map(ranked, UserDTO.class);
+        });
+    }
+
+    public long size() {
+        return this.snapshot.byUsername.length + this.added.users.get();
+    }
+
+    public long estimatedBytes() {
+        return this.snapshot.estimatedBytes + this.added.estimatedBytes.get();
+    }
+
+    private void scan(IndexedUser[] users, Function<IndexedUser, String> key, String prefix, Map<Long, Match> matches) {
+        int start = lowerBound(users, key, prefix);
+        int end = Math.min(users.length, start + this.scanLimit);
+        for (int i = start; i < end; i++) {
+            String term = key.apply(users[i]);
+            if (!term.startsWith(prefix)) {
+                break;
+            }
+            merge(matches, new Match(users[i], term.length()));
+        }
+    }
+
+    private static int lowerBound(IndexedUser[] users, Function<IndexedUser, String> key, String prefix) {
+        int low = 0;
+        int high = users.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (key.apply(users[mid]).compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * A Latin-1 String and its byte[], which has a 16 byte header and is padded to 8 bytes.
+     */
+    private static long stringBytes(String value) {
+        return STRING_BYTES + ((16 + value.length() + 7) & ~7);
+    }
+
+    private static void merge(Map<Long, Match> matches, Match match) {
+        matches.merge(match.user().id(), match, (a, b) -> a.termLength() <= b.termLength() ? a : b);
+    }
+
+    /**
+     * Lower case without the key separator, returns the same instance if nothing changes.
+     */
+    private static String normalize(String term) {
+        String lowerCase = term.toLowerCase(Locale.ROOT);
+        return lowerCase.indexOf(SEPARATOR) < 0 ? lowerCase : lowerCase.replace(String.valueOf(SEPARATOR), "");
+    }
+
+    private record Match(IndexedUser user, int termLength) {
+    }
+
+    private static final class Snapshot {
+        private final IndexedUser[] byUsername;
+        private final IndexedUser[] byEmail;
+        private final long estimatedBytes;
+
+        private Snapshot(IndexedUser[] byUsername, IndexedUser[] byEmail, long estimatedBytes) {
+            this.byUsername = byUsername;
+            this.byEmail = byEmail;
+            this.estimatedBytes = estimatedBytes;
+        }
+
+        private static Snapshot build(List<IndexedUser> users) {
+            IndexedUser[] byUsername = users.toArray(IndexedUser[]::new);
+            users.clear();
+            IndexedUser[] byEmail = byUsername.clone();
+            Arrays.parallelSort(byUsername, Comparator.comparing(IndexedUser::usernameKey));
+            Arrays.parallelSort(byEmail, Comparator.comparing(IndexedUser::emailKey));
+            long estimatedBytes = 0;
+            for (IndexedUser user : byUsername) {
+                estimatedBytes += user.estimatedBytes();
+            }
+            return new Snapshot(byUsername, byEmail, estimatedBytes);
+        }
+
+        private boolean contains(IndexedUser user) {
+            for (int i = lowerBound(this.byUsername, IndexedUser::usernameKey, user.usernameKey());
+                 i < this.byUsername.length && this.byUsername[i].usernameKey().equals(user.usernameKey()); i++) {
+                if (this.byUsername[i].id() == user.id()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Added {
+        private final ConcurrentSkipListMap<String, IndexedUser> keys = new ConcurrentSkipListMap<>();
+        private final AtomicLong users = new AtomicLong();
+        private final AtomicLong estimatedBytes = new AtomicLong();
+
+        private void add(IndexedUser user) {
+            String usernameKey = user.usernameKey() + SEPARATOR + user.id();
+            String emailKey = user.emailKey() + SEPARATOR + user.id();
+            if (this.keys.put(usernameKey, user) == null) {
+                this.keys.put(emailKey, user);
+                this.users.incrementAndGet();
+                this.estimatedBytes.addAndGet(user.estimatedBytes() + 2 * ADDED_ENTRY_BYTES
+                        + stringBytes(usernameKey) + stringBytes(emailKey));
+            }
+        }
+    }
+}
@@ -1,75 +1,286 @@
 package com.ebook.userservice.service;
 
+import com.ebook.userservice.audit.LoginAuditService;
+import com.ebook.userservice.audit.LoginOutcome;
 import com.ebook.userservice.dto.LoginResponseDTO;
+import com.ebook.userservice.dto.UserBatchDTO;
 import com.ebook.userservice.dto.UserDTO;
+import com.ebook.userservice.dto.UserPageDTO;
 import com.ebook.userservice.entity.User;
+import com.ebook.userservice.exception.InvalidRequestException;
+import com.ebook.userservice.exception.InvalidTokenException;
+import com.ebook.userservice.exception.UserAlreadyExistsException;
+import com.ebook.userservice.exception.UserNotFoundException;
+import com.ebook.userservice.outbox.OutboxService;
 import com.ebook.userservice.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class UserService implements UserDetailsService {
 
+    private static final String LOGIN_METRIC = "userservice.login";
+
     private final UserRepository userRepository;
     private final ModelService modelService;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final PasswordEncoder passwordEncoder;
+    private final UserPrincipalCache principalCache;
+    private final RefreshTokenService refreshTokenService;
+    private final UserETagCache eTagCache;
+    private final ReadYourWritesTracker readYourWrites;
+    private final LoginAuditService loginAudit;
+    private final OutboxService outboxService;
+    private final UserSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final int batchChunkSize;
+    private final int batchMaxIds;
+    private final int maxPageSize;
+    private final Timer authenticateTimer;
+    private final Timer jwtSignTimer;
+    private final Timer refreshTimer;
 
-    public UserService(UserRepository userRepository, ModelService modelService, @Lazy AuthenticationManager authenticationManager, JwtService jwtService, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, ModelService modelService, @Lazy AuthenticationManager authenticationManager, JwtService jwtService, PasswordEncoder passwordEncoder, UserPrincipalCache principalCache, RefreshTokenService refreshTokenService,
+                       UserETagCache eTagCache, ReadYourWritesTracker readYourWrites, LoginAuditService loginAudit,
+                       OutboxService outboxService, UserSearchIndex searchIndex, PlatformTransactionManager transactionManager,
+                       @Value("${com.ebook.user-service.batch.chunk-size:500}") int batchChunkSize,
+                       @Value("${com.ebook.user-service.batch.max-ids:1000}") int batchMaxIds,
+                       @Value("${com.ebook.user-service.list.max-page-size:500}") int maxPageSize, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
         this.modelService = modelService;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.refreshTokenService = refreshTokenService;
+        this.eTagCache = eTagCache;
+        this.readYourWrites = readYourWrites;
+        this.loginAudit = loginAudit;
+        this.outboxService = outboxService;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Begun only around the query, so a cache hit takes no connection from the pool
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.batchChunkSize = batchChunkSize;
+        this.batchMaxIds = batchMaxIds;
+        this.maxPageSize = maxPageSize;
+        // BCrypt time inside the authenticate phase is reported by userservice.password.hash{operation=matches}
+        this.authenticateTimer = Timer.builder(LOGIN_METRIC).tag("phase", "authenticate").register(meterRegistry);
+        this.jwtSignTimer = Timer.builder(LOGIN_METRIC).tag("phase", "jwt_sign").register(meterRegistry);
+        this.refreshTimer = Timer.builder(LOGIN_METRIC).tag("phase", "refresh").register(meterRegistry);
     }
 
     public LoginResponseDTO login(String email, String password) {
-        Authentication authentication = this.authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(email, password)
-        );
+        long start = System.nanoTime();
+        LoginOutcome outcome = LoginOutcome.ERROR;
+        try {
+            Authentication authentication = this.authenticateTimer.record(() -> this.authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(email, password)
+            ));
+
+            User user = (User) authentication.getPrincipal();
+            RefreshTokenService.IssuedRefreshToken refreshToken = this.refreshTokenService.issue(user.getId());
+            String jwt = this.jwtSignTimer.record(() -> this.jwtService.generateJwtToken(user, refreshToken.familyId()));
+            SecurityContextHolder.getContext().setAuthentication(authentication);
+            outcome = LoginOutcome.SUCCESS;
+            return this.loginResponse(jwt, refreshToken);
+        } catch (AuthenticationException e) {
+            outcome = LoginOutcome.FAILURE;
+            throw e;
+        } finally {
+            this.loginAudit.record(email, outcome, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and refresh token, without a password check.
+     */
+    public LoginResponseDTO refresh(String refreshToken) {
+        return this.refreshTimer.record(() -> {
+            RefreshTokenService.IssuedRefreshToken next = this.refreshTokenService.rotate(refreshToken);
+            User user = this.readYourWrites.read(ReadYourWritesTracker.idKey(next.userId()), () -> this.userRepository.findById(next.userId()))
+                    .orElseThrow(() -> new InvalidTokenException("Refresh token is not valid"));
+            return this.loginResponse(this.jwtService.generateJwtToken(user, next.familyId()), next);
+        });
+    }
 
-        String jwt = this.jwtService.generateJwtToken(authentication);
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        return new LoginResponseDTO("Bearer " + jwt);
+    private LoginResponseDTO loginResponse(String jwt, RefreshTokenService.IssuedRefreshToken refreshToken) {
+        return new LoginResponseDTO("Bearer " + jwt, refreshToken.value(), this.jwtService.getExpiration().toSeconds());
+    }
+
+    public record TaggedUser(UserDTO user, String eTag) {
     }
 
     public UserDTO getUserById(Long id) {
-        Optional<User> optUser = this.userRepository.findById(id);
+        return this.getTaggedUserById(id).user();
+    }
+
+    /**
+     * Loads the user together with its ETag, and remembers the ETag for {@link #getCachedETag(Long)}.
+     */
+    public TaggedUser getTaggedUserById(Long id) {
+        Optional<User> optUser = this.readOnlyTransactionTemplate.execute(status ->
+                this.readYourWrites.read(ReadYourWritesTracker.idKey(id), () -> this.userRepository.findById(id)));
         if(optUser.isPresent()) {
-            return this.modelService.map(optUser.get(), UserDTO.class);
+            User user = optUser.get();
+            String eTag = User.eTag(user.getId(), user.getVersion());
+            this.eTagCache.put(id, eTag);
+            return new TaggedUser(this.modelService.map(user, UserDTO.class), eTag);
+        }
+        this.eTagCache.invalidate(id);
+        throw new UserNotFoundException("User not found!");
+    }
+
+    /**
+     * @return the user's ETag if it is cached, without touching the database
+     */
+    public String getCachedETag(Long id) {
+        return this.eTagCache.get(id);
+    }
+
+    /**
+     * Looks up several users at once. Ids are queried in chunks of {@code batchChunkSize} with a single
+     * IN query per chunk. Found users are returned in the order of the requested ids, with duplicates
+     * removed, and ids that do not exist are listed separately.
+     *
+     * @throws InvalidRequestException if more than {@code batch.max-ids} ids are requested
+     */
+    public UserBatchDTO getUsersByIds(List<Long> ids) {
+        if (ids.size() > this.batchMaxIds) {
+            throw new InvalidRequestException("At most " + this.batchMaxIds + " ids can be requested at once");
+        }
+        List<Long> requestedIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, User> usersById = new HashMap<>(requestedIds.size() * 2);
+        // All chunks in one read-only transaction, so the lookup can go to a replica
+        this.readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < requestedIds.size(); from += this.batchChunkSize) {
+                List<Long> chunk = requestedIds.subList(from, Math.min(from + this.batchChunkSize, requestedIds.size()));
+                for (User user : this.userRepository.findByIdIn(chunk)) {
+                    usersById.put(user.getId(), user);
+                }
+            }
+        });
+
+        List<User> found = new ArrayList<>(usersById.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requestedIds) {
+            User user = usersById.get(id);
+            if (user != null) {
+                found.add(user);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new UserBatchDTO(this.modelService.map(found, UserDTO.class), missingIds);
+    }
+
+    /**
+     * Users with an id above {@code afterId} in id order. One row more than the page is read to tell whether
+     * another page follows, so the last page never costs an extra empty request.
+     *
+     * @param limit page size, clamped to 1..{@code list.max-page-size}
+     */
+    @Transactional(readOnly = true)
+    public UserPageDTO getUsersAfter(long afterId, int limit) {
+        int pageSize = Math.clamp(limit, 1, this.maxPageSize);
+        List<User> users = this.userRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(pageSize + 1));
+        if (users.size() <= pageSize) {
+            return new UserPageDTO(this.modelService.map(users, UserDTO.class), null);
         }
-        throw new RuntimeException("User not found!");
+        List<User> page = users.subList(0, pageSize);
+        return new UserPageDTO(this.modelService.map(page, UserDTO.class), page.getLast().getId());
     }
 
+    /**
+     * Inserts the user without checking for an existing email first. The unique index on the normalized
+     * email rejects duplicates, including concurrent ones, and the violation is reported as a conflict.
+     * The {@code UserCreated} outbox event is committed together with the user.
+     */
     public UserDTO create(UserDTO userDTO) {
-        Optional<User> optUser = this.findByEmail(userDTO.getEmail());
-        if(!optUser.isPresent()) {
-            User user = this.modelService.map(userDTO, User.class);
-            user.setPassword(this.passwordEncoder.encode(userDTO.getPassword()));
-            user = this.userRepository.save(user);
-            return this.modelService.map(user, UserDTO.class);
+        User newUser = this.modelService.map(userDTO, User.class);
+        newUser.setPassword(this.passwordEncoder.encode(userDTO.getPassword()));
+        User user;
+        try {
+            // The password is hashed outside the transaction, it only holds a connection for the two inserts
+            user = this.transactionTemplate.execute(status -> {
+                // Flushed so that a duplicate email fails on the USERS insert itself
+                User saved = this.userRepository.saveAndFlush(newUser);
+                this.outboxService.userCreated(List.of(saved));
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            if (violatesUniqueEmail(e)) {
+                throw new UserAlreadyExistsException("User already exist!");
+            }
+            throw e;
+        }
+        this.readYourWrites.recordWrite(ReadYourWritesTracker.idKey(user.getId()));
+        this.readYourWrites.recordWrite(ReadYourWritesTracker.emailKey(user.getEmailNormalized()));
+        this.principalCache.invalidate(user.getEmailNormalized());
+        this.eTagCache.put(user.getId(), User.eTag(user.getId(), user.getVersion()));
+        this.searchIndex.addAll(List.of(user));
+        return this.modelService.map(user, UserDTO.class);
+    }
+
+    /**
+     * Only the unique email index means the user exists, any other violation is a bug and stays a 500.
+     * Databases report the index under their own name for it, H2 as {@code PUBLIC.UK_USERS_EMAIL_NORMALIZED_INDEX_4}.
+     */
+    private static boolean violatesUniqueEmail(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                String constraintName = violation.getConstraintName();
+                return constraintName != null && constraintName.toUpperCase(Locale.ROOT).contains(User.EMAIL_UNIQUE_INDEX);
+            }
         }
-        throw new RuntimeException("User already exist!");
+        return false;
     }
 
-    private Optional<User> findByEmail(String email) {
-        return this.userRepository.findByEmail(email);
+    private Optional<User> findByEmailNormalized(String emailNormalized) {
+        return this.readYourWrites.read(ReadYourWritesTracker.emailKey(emailNormalized),
+                () -> this.userRepository.findByEmailNormalized(emailNormalized));
     }
 
+    /**
+     * The read-only transaction, and with it the connection, is only begun when the principal cache misses.
+     */
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return this.findByEmail(email).orElseThrow(() -> new RuntimeException(email + " cannot find!"));
+        User user = this.principalCache.get(User.normalizeEmail(email),
+                key -> this.readOnlyTransactionTemplate.execute(status -> this.findByEmailNormalized(key).orElse(null)));
+        if (user == null) {
+            throw new UsernameNotFoundException(email + " cannot find!");
+        }
+        return user;
     }
 
 
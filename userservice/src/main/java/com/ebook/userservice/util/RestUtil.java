@@ -4,14 +4,18 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Utility class for handling HTTP requests and responses in a Spring Boot application.
@@ -24,6 +28,8 @@ public class RestUtil {
     private static final String X_FORWARDED_FOR = "X-Forwarded-For";
     private static final String USER_AGENT = "User-Agent";
     private static final String ERROR_URI_PREFIX = "http://mumbled.co/errors/";
+    private static final Map<String, URI> ERROR_TYPES = new ConcurrentHashMap<>();
+    private static volatile List<IpAddressMatcher> trustedProxies = List.of();
 
     /**
      * Private constructor to prevent instantiation.
@@ -70,21 +76,71 @@ public class RestUtil {
     }
 
     /**
-     * Gets the client IP address by checking request headers and remote address.
-     * First tries X-Real-IP header, then X-Forwarded-For, and finally falls back to remote address.
+     * Sets the proxies whose X-Real-IP and X-Forwarded-For headers are believed, as IP addresses or CIDR ranges.
+     * Anyone else could put any address in them.
+     *
+     * @param proxies addresses such as {@code 10.0.0.5} or {@code 10.0.0.0/8}, blank entries are ignored
+     */
+    public static void setTrustedProxies(Collection<String> proxies) {
+        trustedProxies = proxies.stream()
+                .map(String::trim)
+                .filter(proxy -> !proxy.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+    }
+
+    /**
+     * Gets the client IP address. When the request comes from a trusted proxy, first tries the X-Real-IP header,
+     * then the nearest X-Forwarded-For entry that is not a trusted proxy. Otherwise, and when neither is set,
+     * returns the remote address.
      *
      * @return The client's IP address as a string
      */
     public static String getIp() {
-        HttpServletRequest request = getRequest();
+        return getIp(getRequest());
+    }
+
+    /**
+     * Same as {@link #getIp()} for the given request, for callers that run outside the request context.
+     *
+     * @param request the HTTP request
+     * @return The client's IP address as a string
+     */
+    public static String getIp(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (!isTrustedProxy(remoteAddr)) {
+            return remoteAddr;
+        }
         String ip = request.getHeader(X_REAL_IP_HEADER);
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getHeader(X_FORWARDED_FOR);
+        if (ip != null && !ip.isBlank()) {
+            return ip.trim();
+        }
+        String forwardedFor = request.getHeader(X_FORWARDED_FOR);
+        if (forwardedFor != null) {
+            // From the nearest hop back: entries left of the first untrusted one may have been made up by the client
+            String[] hops = forwardedFor.split(",");
+            for (int i = hops.length - 1; i >= 0; i--) {
+                String hop = hops[i].trim();
+                if (!hop.isEmpty() && !isTrustedProxy(hop)) {
+                    return hop;
+                }
+            }
         }
-        if (ip == null || ip.isEmpty()) {
-            ip = request.getRemoteAddr();
+        return remoteAddr;
+    }
+
+    private static boolean isTrustedProxy(String address) {
+        for (IpAddressMatcher proxy : trustedProxies) {
+            try {
+                if (proxy.matches(address)) {
+                    return true;
+                }
+            } catch (IllegalArgumentException e) {
+                // Not an IP address
+                return false;
+            }
         }
-        return ip;
+        return false;
     }
 
     /**
@@ -93,7 +149,17 @@ public class RestUtil {
      * @return The User-Agent string or null if not present
      */
     public static String getUserAgent() {
-        return getRequest().getHeader(USER_AGENT);
+        return getUserAgent(getRequest());
+    }
+
+    /**
+     * Gets the User-Agent header of the given request, for callers outside the request context such as filters.
+     *
+     * @param request The HTTP request
+     * @return The User-Agent string or null if not present
+     */
+    public static String getUserAgent(HttpServletRequest request) {
+        return request.getHeader(USER_AGENT);
     }
 
     /**
@@ -153,19 +219,34 @@ public class RestUtil {
      * @return Formatted ProblemDetail object ready to be returned to the client
      */
     public static ProblemDetail createProblemDetail(HttpStatusCode status, String code, String detail, Object data) {
+        return createProblemDetail(getRequest(), status, code, detail, data);
+    }
+
+    /**
+     * Same as {@link #createProblemDetail(HttpStatusCode, String, String, Object)} for the given request,
+     * without going through the request context. The type URI of each error code is parsed once and reused.
+     *
+     * @param request the HTTP request the response is for
+     * @param status  HTTP status code for the response
+     * @param code    Application-specific error code
+     * @param detail  Error description message
+     * @param data    Additional data to include in the response
+     * @return Formatted ProblemDetail object ready to be returned to the client
+     */
+    public static ProblemDetail createProblemDetail(HttpServletRequest request, HttpStatusCode status, String code, String detail, Object data) {
         ProblemDetail problemDetail = ProblemDetail.forStatusAndDetail(status, detail);
-        HttpServletRequest request = getRequest();
+        String requestUri = request.getRequestURI();
 
         problemDetail.setTitle(code);
-        problemDetail.setInstance(URI.create(request.getRequestURI()));
-        problemDetail.setType(URI.create(ERROR_URI_PREFIX + code));
+        problemDetail.setInstance(URI.create(requestUri));
+        problemDetail.setType(ERROR_TYPES.computeIfAbsent(code, key -> URI.create(ERROR_URI_PREFIX + key)));
 
         problemDetail.setProperty("timestamp", LocalDateTime.now());
         problemDetail.setProperty("data", data);
         problemDetail.setProperty("error", code);
         problemDetail.setProperty("message", detail);
-        problemDetail.setProperty("path", request.getRequestURI());
-        problemDetail.setProperty("ip", getIp());
+        problemDetail.setProperty("path", requestUri);
+        problemDetail.setProperty("ip", getIp(request));
 
         return problemDetail;
     }